@@ -6,13 +6,16 @@ import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.collections.PersistentCollection;
 import com.googlecode.totallylazy.functions.Function2;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import static accrete.Cancellation.never;
 import static accrete.DoleParams.*;
 import static accrete.Planetesimal.protoplanetMass;
-import static accrete.Planetesimal.randomPlanetesimal;
-import static accrete.Sequences.partitionWith;
 import static com.googlecode.totallylazy.Option.none;
 import static com.googlecode.totallylazy.Option.some;
 import static com.googlecode.totallylazy.Pair.pair;
@@ -24,6 +27,7 @@ import static com.googlecode.totallylazy.numbers.Numbers.add;
 import static com.googlecode.totallylazy.predicates.Predicates.and;
 import static java.lang.Math.*;
 import static java.util.Comparator.comparingDouble;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class Accrete {
 
@@ -92,6 +96,19 @@ public class Accrete {
         return some(pair(result, result));
     };
     private final Star star = new Star(1.0, 1.0);
+    private final Sampling sampling;
+
+    public Accrete() {
+        this(Sampling.RANDOM);
+    }
+
+    public Accrete(Sampling sampling) {
+        this.sampling = sampling;
+    }
+
+    public Star star() {
+        return star;
+    }
 
     private boolean isDustLeft(Sequence<DustBand> dustBands) {
         return dustBands.exists(and(
@@ -104,17 +121,35 @@ public class Accrete {
         return unfoldRight(apply(accreteMass, dustBands), nucleus).lastOption().getOrElse(nucleus);
     }
 
-    private Sequence<DustBand> updateDustBands(Sequence<DustBand> dustBands, Planetesimal tsml) {
-        return dustBands.flatMap(apply(sweepBand, tsml));
+    /**
+     * Sweeps {@code tsml} through the bands and merges each run of neighbours with the same dust and gas flags into
+     * one band as it goes, in a single pass, so no two neighbours share flags afterwards.  See {@link #merge} for the
+     * edges a merged band gets, which leave the bands neither contiguous nor necessarily ordered.
+     */
+    private Sequence<DustBand> sweepDustBands(Sequence<DustBand> dustBands, Planetesimal tsml) {
+        var result = new ArrayList<DustBand>();
+        DustBand first = null;
+        DustBand last = null;
+        for (var band : dustBands.flatMap(apply(sweepBand, tsml))) {
+            if (last != null && (last.dust() != band.dust() || last.gas() != band.gas())) {
+                result.add(merge(first, last));
+                first = null;
+            }
+            if (first == null) first = band;
+            last = band;
+        }
+        if (last != null) result.add(merge(first, last));
+        return sequence(result);
     }
 
-    private Sequence<DustBand> compressDustBands(Sequence<DustBand> dustBands) {
-        return partitionWith(dustBands, (x, y) -> x.dust() == y.dust() && x.gas() == y.gas())
-                .map(xs -> {
-                    var f = xs.first();
-                    var l = xs.last();
-                    return new DustBand(f.inner(), l.outer(), f.dust(), f.gas());
-                });
+    /**
+     * Legacy edge inversion, kept for output parity: the grouping this pass replaced reversed each run before
+     * merging it, so a merged band takes the inner edge of the run's last band and the outer edge of its first.
+     * That is a bug: a run of two bands becomes a zero-width band and a longer run an inverted one, with
+     * {@code inner > outer}.  The generated systems depend on it, but nothing else should.
+     */
+    private static DustBand merge(DustBand first, DustBand last) {
+        return first == last ? first : new DustBand(last.inner(), first.outer(), first.dust(), first.gas());
     }
 
     private PersistentCollection<Planetesimal> coalescePlanetesimals(PersistentCollection<Planetesimal> source, Planetesimal x) {
@@ -125,20 +160,102 @@ public class Accrete {
     }
 
     public PersistentCollection<Planetesimal> distributePlanets(Random random) {
+        return distributePlanets(random, never(), Long.MAX_VALUE).planets();
+    }
+
+    public PlanetarySystem distributeSystem(Random random) {
+        return PlanetarySystem.of(star, distributePlanets(random));
+    }
+
+    /**
+     * Runs until the dust is gone, or stops with the planets formed so far, flagged incomplete, once
+     * {@code cancellation} is cancelled or {@code maxNuclei} nuclei have been injected.  Both are checked before
+     * each nucleus.
+     *
+     * @throws IllegalArgumentException if {@code maxNuclei} is negative
+     */
+    public Accretion distributePlanets(Random random, Cancellation cancellation, long maxNuclei) {
+        return distributePlanets(random, AccretionListener.none(), cancellation, maxNuclei);
+    }
+
+    /**
+     * As {@link #distributePlanets(Random, Cancellation, long)}, reporting the state after each nucleus to
+     * {@code listener}.
+     */
+    public Accretion distributePlanets(Random random, AccretionListener listener, Cancellation cancellation, long maxNuclei) {
+        if (maxNuclei < 0) throw new IllegalArgumentException("maxNuclei must not be negative: " + maxNuclei);
         var dustBands = sequence(new DustBand(innerDustLimit(), outerDustLimit(star.mass()), true, true));
         PersistentCollection<Planetesimal> planets = sortedSet(axisComparator);
+        var nuclei = 0L;
+        var sampler = sampling.nuclei(random, star);
+        listener.started(star, dustBands);
 
         while (isDustLeft(dustBands)) {
-            var tsml = accreteDust(dustBands, randomPlanetesimal(random, star));
-            if (sequence(0.0, protoplanetMass).contains(tsml.mass())) continue;
-            planets = coalescePlanetesimals(planets, tsml);
-            dustBands = updateDustBands(dustBands, tsml);
-            dustBands = compressDustBands(dustBands);
+            if (nuclei >= maxNuclei || cancellation.isCancelled()) return new Accretion(planets, false, nuclei);
+            nuclei++;
+            var nucleus = sampler.get();
+            var tsml = accreteDust(dustBands, nucleus);
+            if (!sequence(0.0, protoplanetMass).contains(tsml.mass())) {
+                planets = coalescePlanetesimals(planets, tsml);
+                dustBands = sweepDustBands(dustBands, tsml);
+            }
+            listener.accreted(nucleus, tsml, planets, dustBands);
+        }
+
+        return new Accretion(planets, true, nuclei);
+    }
+
+    /**
+     * Produces the same planets as {@link #distributePlanets(Random)}, accreting up to {@code lookahead} nuclei
+     * concurrently on {@code executor}.  Nuclei are drawn in the sequential order and accreted against a snapshot
+     * of the dust bands, then committed in order; a nucleus is re-accreted only when a band overlapping its swept
+     * range was changed by an earlier commit.  Nuclei drawn after the dust runs out are discarded, so the random
+     * source is left further advanced than by the sequential run, and their accretions are cancelled but those
+     * already running on {@code executor} still run to the end.
+     *
+     * @throws IllegalArgumentException if {@code lookahead} is not positive
+     */
+    public PersistentCollection<Planetesimal> distributePlanets(Random random, Executor executor, int lookahead) {
+        if (lookahead <= 0) throw new IllegalArgumentException("lookahead must be positive: " + lookahead);
+        var dustBands = sequence(new DustBand(innerDustLimit(), outerDustLimit(star.mass()), true, true));
+        PersistentCollection<Planetesimal> planets = sortedSet(axisComparator);
+        var sampler = sampling.nuclei(random, star);
+
+        while (isDustLeft(dustBands)) {
+            var snapshot = dustBands.realise();
+            var nuclei = new ArrayList<Planetesimal>(lookahead);
+            var speculations = new ArrayList<CompletableFuture<Planetesimal>>(lookahead);
+            for (var i = 0; i < lookahead; i++) {
+                var nucleus = sampler.get();
+                nuclei.add(nucleus);
+                speculations.add(supplyAsync(() -> accreteDust(snapshot, nucleus), executor));
+            }
+
+            dustBands = snapshot;
+            for (var i = 0; i < lookahead && isDustLeft(dustBands); i++) {
+                var tsml = speculations.get(i).join();
+                if (dustBands != snapshot && !sweptBands(dustBands, tsml).equals(sweptBands(snapshot, tsml)))
+                    tsml = accreteDust(dustBands, nuclei.get(i));
+                if (sequence(0.0, protoplanetMass).contains(tsml.mass())) continue;
+                planets = coalescePlanetesimals(planets, tsml);
+                dustBands = sweepDustBands(dustBands, tsml);
+            }
+            speculations.forEach(x -> x.cancel(false));
         }
 
         return planets;
     }
 
+    /**
+     * The bands {@link #collectDust} can see from {@code tsml}'s swept range, which contains every range swept
+     * while it grew.
+     */
+    private static List<DustBand> sweptBands(Sequence<DustBand> dustBands, Planetesimal tsml) {
+        var min = tsml.innerSweptLimit();
+        var max = tsml.outerSweptLimit();
+        return dustBands.filter(x -> x.outer() > min && x.inner() < max).toList();
+    }
+
     public static void main(String... args) {
         System.out.println(new Accrete().distributePlanets(new Random()).toSequence().toString("\n"));
     }
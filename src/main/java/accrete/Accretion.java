@@ -0,0 +1,14 @@
+package accrete;
+
+import com.googlecode.totallylazy.collections.PersistentCollection;
+
+/**
+ * The planets of a run and whether it ran until the dust was gone, or was stopped early with the planets formed
+ * so far.
+ */
+public record Accretion(
+        PersistentCollection<Planetesimal> planets,
+        boolean complete,
+        long nuclei
+) {
+}
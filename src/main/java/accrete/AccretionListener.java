@@ -0,0 +1,22 @@
+package accrete;
+
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.collections.PersistentCollection;
+
+/**
+ * Follows a run of {@link Accrete#distributePlanets}, seeing the state it starts from and the state after each
+ * nucleus.  Nuclei that gathered no dust leave the planets and the dust bands as they were.
+ */
+public interface AccretionListener {
+
+    static AccretionListener none() {
+        return new AccretionListener() {
+        };
+    }
+
+    default void started(Star star, Sequence<DustBand> dustBands) {
+    }
+
+    default void accreted(Planetesimal nucleus, Planetesimal tsml, PersistentCollection<Planetesimal> planets, Sequence<DustBand> dustBands) {
+    }
+}
@@ -0,0 +1,29 @@
+package accrete;
+
+import java.time.Duration;
+
+/**
+ * Asked once per nucleus whether a run should stop early, so it must be cheap to answer.
+ */
+@FunctionalInterface
+public interface Cancellation {
+
+    boolean isCancelled();
+
+    static Cancellation never() {
+        return () -> false;
+    }
+
+    static Cancellation after(Duration timeout) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        return () -> System.nanoTime() - deadline >= 0;
+    }
+
+    static Cancellation interrupted() {
+        return () -> Thread.currentThread().isInterrupted();
+    }
+
+    default Cancellation or(Cancellation other) {
+        return () -> isCancelled() || other.isCancelled();
+    }
+}
@@ -9,6 +9,8 @@ package accrete;
 
 import java.util.Random;
 
+import static java.lang.Math.cbrt;
+import static java.lang.Math.exp;
 import static java.lang.Math.pow;
 import static java.lang.Math.sqrt;
 
@@ -20,6 +22,14 @@ import static java.lang.Math.sqrt;
  */
 class DoleParams {
 
+    /**
+     * Whether the hot formulas use cheaper specialized forms (square and cube roots, a tabled exponential) in place
+     * of the general {@code pow} and {@code exp}.  Results then differ from the strict forms in the last bits, and
+     * so do the systems built from them.  It is off unless the {@code accrete.fastMath} property is set, and is read
+     * once, so every system of a JVM is built with the same formulas.
+     */
+    static final boolean fastMath = Boolean.getBoolean("accrete.fastMath");
+
     static final double B = 1.2E-5;     // Used in critical mass calc
 
     /**
@@ -27,7 +37,9 @@ class DoleParams {
      * accrete gas as well as dust.
      */
     static double CriticalMass(double radius, double eccentricity, double luminosity) {
-        return (B * pow(PerihelionDistance(radius, eccentricity) * sqrt(luminosity), -0.75));
+        var distance = PerihelionDistance(radius, eccentricity) * sqrt(luminosity);
+        if (fastMath) return B / (sqrt(distance) * sqrt(sqrt(distance)));
+        return (B * pow(distance, -0.75));
     }
 
     static double PerihelionDistance(double radius, double eccentricity) {
@@ -43,6 +55,7 @@ class DoleParams {
     }
 
     static double ReducedMargin(double mass) {
+        if (fastMath) return sqrt(sqrt(ReducedMass(mass)));
         return pow(ReducedMass(mass), 1.0 / 4.0);
     }
 
@@ -77,6 +90,11 @@ class DoleParams {
     static final double ALPHA = 5.0;    // Used in density calcs
     static final double N = 3.0;        // Used in density calcs
 
+    static double DustDensity(double stellar_mass, double axis) {
+        if (fastMath && N == 3.0) return DUST_DENSITY_COEFF * sqrt(stellar_mass) * FastExp(-ALPHA * cbrt(axis));
+        return DUST_DENSITY_COEFF * sqrt(stellar_mass) * exp(-ALPHA * pow(axis, 1.0 / N));
+    }
+
     static double MassDensity(double dust_density, double critical_mass, double mass) {
         return K * dust_density / (1.0 + sqrt(critical_mass / mass) * (K - 1.0));
     }
@@ -84,13 +102,41 @@ class DoleParams {
     static final double ECCENTRICITY_COEFF = 0.077;
 
     static double RandomEccentricity(Random random) {
-        return 1.0 - pow(random.nextDouble(), ECCENTRICITY_COEFF);
+        return Eccentricity(random.nextDouble());
+    }
+
+    /**
+     * The eccentricity for a uniform draw {@code u} in [0, 1).
+     */
+    static double Eccentricity(double u) {
+        return 1.0 - pow(u, ECCENTRICITY_COEFF);
     }
 
     static double ScaleCubeRootMass(double scale, double mass) {
+        if (fastMath) return scale * cbrt(mass);
         return scale * pow(mass, 1.0 / 3.0);
     }
 
+    static final double EXP_MIN = -64.0;
+    static final int EXP_STEPS = 64;     // table entries per unit of the argument
+    private static final double[] EXP_TABLE = new double[(int) -EXP_MIN * EXP_STEPS + 1];
+
+    static {
+        for (var i = 0; i < EXP_TABLE.length; i++) EXP_TABLE[i] = exp(EXP_MIN + (double) i / EXP_STEPS);
+    }
+
+    /**
+     * e^x from the table entry just below x, scaled by a cubic for the remainder of less than 1/64, good to a few
+     * parts in 10^9 over [-64, 0] and falling back to {@code exp} outside it.
+     */
+    static double FastExp(double x) {
+        if (!(x >= EXP_MIN && x <= 0.0)) return exp(x);
+        var t = (x - EXP_MIN) * EXP_STEPS;
+        var i = (int) t;
+        var r = (t - i) / EXP_STEPS;
+        return EXP_TABLE[i] * (1.0 + r * (1.0 + r * (0.5 + r / 6.0)));
+    }
+
     static double innerDustLimit() {
         return 0.0;
     }
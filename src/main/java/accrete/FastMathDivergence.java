@@ -0,0 +1,142 @@
+package accrete;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.ProcessBuilder.Redirect.INHERIT;
+
+/**
+ * Generates the same seeds with the strict and the fast formulas of {@link DoleParams} and reports how far the
+ * systems drift apart and how much time the fast formulas save.  The formulas are fixed for a JVM, so each runs in
+ * a JVM of its own, started with {@code accrete.fastMath} set accordingly, which writes its systems back to a file.
+ * <pre>
+ * FastMathDivergence [systems]
+ * </pre>
+ */
+public class FastMathDivergence {
+
+    private record Run(List<List<Planetesimal>> systems, long nanos) {
+    }
+
+    private static Run run(int count, boolean fastMath) throws IOException, InterruptedException {
+        var file = Files.createTempFile("divergence", ".bin");
+        try {
+            var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            var process = new ProcessBuilder(List.of(
+                    java, "-Daccrete.fastMath=" + fastMath, "-cp", System.getProperty("java.class.path"),
+                    FastMathDivergence.class.getName(), "generate", Integer.toString(count), file.toString()
+            )).redirectError(INHERIT).start();
+            var nanos = new String(process.getInputStream().readAllBytes()).trim();
+            var status = process.waitFor();
+            if (status != 0) throw new IOException("%s run exited with %d".formatted(fastMath ? "fast" : "strict", status));
+            return new Run(read(file, count), Long.parseLong(nanos));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * In the worker JVM: times {@code count} seeds after a warm up, writes their systems to {@code file} and prints
+     * the time in nanoseconds.
+     */
+    private static void generate(int count, Path file) throws IOException {
+        var gen = new Accrete();
+        for (var seed = 0; seed < Math.min(count, 100); seed++) gen.distributePlanets(new Random(seed));
+
+        var systems = new ArrayList<List<Planetesimal>>(count);
+        var start = System.nanoTime();
+        for (var seed = 0; seed < count; seed++) {
+            var planets = new ArrayList<Planetesimal>();
+            gen.distributePlanets(new Random(seed)).forEach(planets::add);
+            systems.add(planets);
+        }
+        var nanos = System.nanoTime() - start;
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (var planets : systems) {
+                out.writeInt(planets.size());
+                for (var planet : planets) {
+                    out.writeDouble(planet.axis());
+                    out.writeDouble(planet.eccn());
+                    out.writeDouble(planet.mass());
+                    out.writeBoolean(planet.gasGiant());
+                }
+            }
+        }
+        System.out.println(nanos);
+    }
+
+    private static List<List<Planetesimal>> read(Path file, int count) throws IOException {
+        var star = new Accrete().star();
+        var systems = new ArrayList<List<Planetesimal>>(count);
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (var i = 0; i < count; i++) {
+                var planets = new ArrayList<Planetesimal>();
+                for (var size = in.readInt(); size > 0; size--)
+                    planets.add(new Planetesimal(star, in.readDouble(), in.readDouble(), in.readDouble(), in.readBoolean()));
+                systems.add(planets);
+            }
+        }
+        return systems;
+    }
+
+    private static double totalMass(List<Planetesimal> planets) {
+        return planets.stream().mapToDouble(Planetesimal::mass).sum();
+    }
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("generate")) {
+            generate(Integer.parseInt(args[1]), Path.of(args[2]));
+            return;
+        }
+        var count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        var strictRun = run(count, false);
+        var fastRun = run(count, true);
+        var strict = strictRun.systems();
+        var fast = fastRun.systems();
+        var strictTime = strictRun.nanos();
+        var fastTime = fastRun.nanos();
+
+        var identical = 0;
+        var sameCount = 0;
+        var maxAxisError = 0.0;
+        var maxMassError = 0.0;
+        var strictPlanets = 0L;
+        var fastPlanets = 0L;
+        var strictMass = 0.0;
+        var fastMass = 0.0;
+        for (var i = 0; i < count; i++) {
+            var s = strict.get(i);
+            var f = fast.get(i);
+            strictPlanets += s.size();
+            fastPlanets += f.size();
+            strictMass += totalMass(s);
+            fastMass += totalMass(f);
+            if (s.equals(f)) identical++;
+            if (s.size() != f.size()) continue;
+            sameCount++;
+            for (var j = 0; j < s.size(); j++) {
+                maxAxisError = max(maxAxisError, abs(s.get(j).axis() - f.get(j).axis()) / s.get(j).axis());
+                maxMassError = max(maxMassError, abs(s.get(j).mass() - f.get(j).mass()) / s.get(j).mass());
+            }
+        }
+
+        System.out.printf("%d systems: strict %.1f ms, fast %.1f ms (%.2fx)%n",
+                count, strictTime / 1e6, fastTime / 1e6, (double) strictTime / fastTime);
+        System.out.printf("identical systems: %d, same planet count: %d%n", identical, sameCount);
+        System.out.printf("max relative error with same planet count: axis %.3g, mass %.3g%n", maxAxisError, maxMassError);
+        System.out.printf("planets per system: strict %.4f, fast %.4f%n", (double) strictPlanets / count, (double) fastPlanets / count);
+        System.out.printf("mass per system: strict %.6g, fast %.6g%n", strictMass / count, fastMass / count);
+    }
+}
@@ -0,0 +1,93 @@
+package accrete;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static accrete.DoleParams.Eccentricity;
+import static accrete.Planetesimal.protoplanetMass;
+import static accrete.Planetesimal.randomPlanetesimal;
+
+/**
+ * Spreads an ensemble evenly over the draws of its first nuclei, so that ensemble means converge faster than with
+ * independent systems.  System {@code i} of the ensemble takes point {@code i} of a Halton sequence, whose
+ * dimensions give the axis and eccentricity of its first {@value #NUCLEI} nuclei; later nuclei come from the
+ * system's random source.  The sequence is randomised once per ensemble, permuting the digits of each dimension
+ * and shifting it by a random offset modulo 1, which leaves every point uniformly distributed: each system is still
+ * an ordinary system, only the ensemble is stratified.
+ */
+public final class HaltonSampling {
+
+    static final int NUCLEI = 32;
+
+    private final Dimension[] dimensions = new Dimension[2 * NUCLEI];
+
+    public HaltonSampling(Random random) {
+        var base = 1;
+        for (var d = 0; d < dimensions.length; d++) {
+            base = nextPrime(base);
+            dimensions[d] = new Dimension(base, random);
+        }
+    }
+
+    /**
+     * The sampling for system {@code index} of the ensemble.
+     */
+    public Sampling system(long index) {
+        return (random, star) -> new Supplier<>() {
+            private final double inner = star.innermostPlanet();
+            private final double outer = star.outermostPlanet();
+            private int nucleus;
+
+            @Override
+            public Planetesimal get() {
+                if (nucleus == NUCLEI) return randomPlanetesimal(random, star);
+                var u = dimensions[2 * nucleus].at(index + 1);
+                var v = dimensions[2 * nucleus + 1].at(index + 1);
+                nucleus++;
+                var axis = Math.min(inner + u * (outer - inner), Math.nextDown(outer));
+                return new Planetesimal(star, axis, Eccentricity(v), protoplanetMass, false);
+            }
+        };
+    }
+
+    private static int nextPrime(int n) {
+        for (var candidate = n + 1; ; candidate++) {
+            var prime = true;
+            for (var f = 2; f * f <= candidate && prime; f++) prime = candidate % f != 0;
+            if (prime) return candidate;
+        }
+    }
+
+    /**
+     * The radical inverse in one base, over enough digits to fill a double, with each digit mapped through a
+     * random permutation and the result shifted by a random offset modulo 1.
+     */
+    private static final class Dimension {
+        private final int base;
+        private final int digits;
+        private final int[] permutation;
+        private final double offset;
+
+        Dimension(int base, Random random) {
+            this.base = base;
+            this.digits = (int) Math.ceil(53 * Math.log(2) / Math.log(base));
+            this.permutation = new int[base];
+            for (var i = 0; i < base; i++) permutation[i] = i;
+            for (var i = base - 1; i > 0; i--) {
+                var j = random.nextInt(i + 1);
+                var t = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = t;
+            }
+            this.offset = random.nextDouble();
+        }
+
+        double at(long index) {
+            var result = 0.0;
+            var scale = 1.0 / base;
+            for (var d = 0; d < digits; d++, index /= base, scale /= base) result += permutation[(int) (index % base)] * scale;
+            result += offset;
+            return result >= 1.0 ? result - 1.0 : result;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package accrete;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static accrete.Accrete.axisComparator;
+
+/**
+ * An immutable system stored as columns, sorted by axis: one array each of axis, eccentricity and mass, and a bit
+ * per planet for gas giants, sharing a single {@link Star}.  Views of a range of planets share the columns, and the
+ * columns can be read as buffers or moved in bulk into and out of a {@link ByteBuffer}.
+ */
+public final class PlanetarySystem implements Iterable<Planetesimal> {
+
+    private final Star star;
+    private final double[] axis;
+    private final double[] eccn;
+    private final double[] mass;
+    private final BitSet gasGiant;
+    private final int offset;
+    private final int size;
+
+    private PlanetarySystem(Star star, double[] axis, double[] eccn, double[] mass, BitSet gasGiant, int offset, int size) {
+        this.star = star;
+        this.axis = axis;
+        this.eccn = eccn;
+        this.mass = mass;
+        this.gasGiant = gasGiant;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public static PlanetarySystem of(Star star, Iterable<Planetesimal> planets) {
+        var sorted = new ArrayList<Planetesimal>();
+        planets.forEach(sorted::add);
+        sorted.sort(axisComparator);
+
+        var size = sorted.size();
+        var axis = new double[size];
+        var eccn = new double[size];
+        var mass = new double[size];
+        var gasGiant = new BitSet(size);
+        for (var i = 0; i < size; i++) {
+            var planet = sorted.get(i);
+            axis[i] = planet.axis();
+            eccn[i] = planet.eccn();
+            mass[i] = planet.mass();
+            gasGiant.set(i, planet.gasGiant());
+        }
+        return new PlanetarySystem(star, axis, eccn, mass, gasGiant, 0, size);
+    }
+
+    public Star star() {
+        return star;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double axis(int i) {
+        return axis[index(i)];
+    }
+
+    public double eccn(int i) {
+        return eccn[index(i)];
+    }
+
+    public double mass(int i) {
+        return mass[index(i)];
+    }
+
+    public boolean gasGiant(int i) {
+        return gasGiant.get(index(i));
+    }
+
+    public Planetesimal get(int i) {
+        var at = index(i);
+        return new Planetesimal(star, axis[at], eccn[at], mass[at], gasGiant.get(at));
+    }
+
+    /**
+     * The planets {@code from} (inclusive) to {@code to} (exclusive), sharing this system's columns.
+     */
+    public PlanetarySystem view(int from, int to) {
+        if (from < 0 || to > size || from > to) throw new IndexOutOfBoundsException("[%d, %d) of %d".formatted(from, to, size));
+        return new PlanetarySystem(star, axis, eccn, mass, gasGiant, offset + from, to - from);
+    }
+
+    public DoubleBuffer axes() {
+        return column(axis);
+    }
+
+    public DoubleBuffer eccentricities() {
+        return column(eccn);
+    }
+
+    public DoubleBuffer masses() {
+        return column(mass);
+    }
+
+    /**
+     * The bytes {@link #writeTo} takes.
+     */
+    public int bytes() {
+        return Integer.BYTES + 3 * Double.BYTES * size + Long.BYTES * words(size);
+    }
+
+    /**
+     * Writes the planet count, the axis, eccentricity and mass columns and the gas giant bits, leaving
+     * {@code buffer} positioned after them.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(size);
+        for (var column : new double[][]{axis, eccn, mass}) {
+            buffer.asDoubleBuffer().put(column, offset, size);
+            buffer.position(buffer.position() + Double.BYTES * size);
+        }
+        var bits = gasGiant.get(offset, offset + size).toLongArray();
+        for (var i = 0; i < words(size); i++) buffer.putLong(i < bits.length ? bits[i] : 0L);
+    }
+
+    public static PlanetarySystem readFrom(Star star, ByteBuffer buffer) {
+        var size = buffer.getInt();
+        var columns = new double[3][size];
+        for (var column : columns) {
+            buffer.asDoubleBuffer().get(column);
+            buffer.position(buffer.position() + Double.BYTES * size);
+        }
+        var bits = new long[words(size)];
+        for (var i = 0; i < bits.length; i++) bits[i] = buffer.getLong();
+        return new PlanetarySystem(star, columns[0], columns[1], columns[2], BitSet.valueOf(bits), 0, size);
+    }
+
+    @Override
+    public Iterator<Planetesimal> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Planetesimal next() {
+                if (next == size) throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        var result = new StringBuilder();
+        for (var planet : this) result.append(planet).append('\n');
+        return result.toString();
+    }
+
+    private int index(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("planet %d of %d".formatted(i, size));
+        return offset + i;
+    }
+
+    private DoubleBuffer column(double[] values) {
+        return DoubleBuffer.wrap(values, offset, size).slice().asReadOnlyBuffer();
+    }
+
+    private static int words(int bits) {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+}
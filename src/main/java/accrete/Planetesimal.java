@@ -47,7 +47,7 @@ public record Planetesimal(
     }
 
     public double dustDensity() {
-        return DUST_DENSITY_COEFF * sqrt(star.mass()) * exp(-ALPHA * pow(axis, 1.0 / N));
+        return DustDensity(star.mass(), axis);
     }
 
     public double getMassEarth() {
@@ -0,0 +1,20 @@
+package accrete;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static accrete.Planetesimal.randomPlanetesimal;
+
+/**
+ * Where the axis and eccentricity of each nucleus of a system come from.
+ */
+@FunctionalInterface
+public interface Sampling {
+
+    Supplier<Planetesimal> nuclei(Random random, Star star);
+
+    /**
+     * Every nucleus drawn independently from the system's random source.
+     */
+    Sampling RANDOM = (random, star) -> () -> randomPlanetesimal(random, star);
+}
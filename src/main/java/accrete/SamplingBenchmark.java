@@ -0,0 +1,78 @@
+package accrete;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+
+import static java.lang.Math.sqrt;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+/**
+ * Compares how quickly ensemble means converge with independent systems and with a {@link HaltonSampling}.  A
+ * large independent ensemble gives reference means of planets, gas giants and total mass per system; repeated
+ * ensembles of increasing size are then run both ways and the root mean square error of their means against the
+ * reference is reported, with the variance ratio giving how many independent systems one Halton system is worth.
+ * Seeds come from a master random source, as consecutive seeds give correlated first draws.
+ * <pre>
+ * SamplingBenchmark [reference systems] [replicates]
+ * </pre>
+ */
+public class SamplingBenchmark {
+
+    private static final String[] statistics = {"planets", "gas giants", "mass"};
+    private static final int[] sizes = {16, 64, 256};
+
+    private static double[] means(LongFunction<Sampling> sampling, Random seeds, int count, ExecutorService executor) {
+        var systems = IntStream.range(0, count)
+                .mapToObj(i -> {
+                    var seed = seeds.nextLong();
+                    return supplyAsync(() -> new Accrete(sampling.apply(i)).distributePlanets(new Random(seed)), executor);
+                })
+                .toList();
+        var sums = new double[statistics.length];
+        for (var system : systems.stream().map(CompletableFuture::join).toList()) {
+            for (var planet : system) {
+                sums[0]++;
+                if (planet.gasGiant()) sums[1]++;
+                sums[2] += planet.getMassEarth();
+            }
+        }
+        for (var i = 0; i < sums.length; i++) sums[i] /= count;
+        return sums;
+    }
+
+    public static void main(String... args) {
+        var referenceSystems = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        var replicates = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        var master = new Random(1L << 40);
+        var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            var reference = means(i -> Sampling.RANDOM, master, referenceSystems, executor);
+            System.out.printf("reference over %d systems: %.4f planets, %.4f gas giants, %.4f Earth masses%n",
+                    referenceSystems, reference[0], reference[1], reference[2]);
+
+            for (var size : sizes) {
+                var random = new double[statistics.length];
+                var halton = new double[statistics.length];
+                for (var r = 0; r < replicates; r++) {
+                    var independent = means(i -> Sampling.RANDOM, master, size, executor);
+                    var ensemble = new HaltonSampling(new Random(master.nextLong()));
+                    var stratified = means(ensemble::system, master, size, executor);
+                    for (var s = 0; s < statistics.length; s++) {
+                        random[s] += (independent[s] - reference[s]) * (independent[s] - reference[s]) / replicates;
+                        halton[s] += (stratified[s] - reference[s]) * (stratified[s] - reference[s]) / replicates;
+                    }
+                }
+                for (var s = 0; s < statistics.length; s++) {
+                    System.out.printf("%4d systems, %-10s rms error random %.4g, halton %.4g, variance ratio %.2f%n",
+                            size, statistics[s], sqrt(random[s]), sqrt(halton[s]), random[s] / halton[s]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
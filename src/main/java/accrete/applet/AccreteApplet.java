@@ -11,8 +11,6 @@ import java.util.Random;
 
 import static java.awt.Color.black;
 import static java.awt.Color.white;
-import static java.lang.Math.log;
-import static java.lang.Math.pow;
 
 public class AccreteApplet extends Applet implements MouseListener, Runnable {
 
@@ -37,71 +35,10 @@ public class AccreteApplet extends Applet implements MouseListener, Runnable {
   }
 
   public void paint(Graphics g) {
-    DrawGrid(g);
+    SystemPlot plot = new SystemPlot(getSize().width, getSize().height);
+    plot.drawGrid(g);
     if (planets == null) return;
-    DrawPlanets(g);
-  }
-
-
-  private void DrawGrid(Graphics g) {
-    int hscale = hscale();
-    int vscale = vscale();
-    int width = hscale * 3;
-    int height = vscale * 2;
-
-    g.setColor(black);
-    g.drawRect(0, 0, width, height);
-    g.drawLine(0, vscale, width, vscale);
-
-    int ticklen = vscale / 10;
-    int ytick = height - ticklen;
-    g.drawLine(hscale, height, hscale, height - 2 * ticklen);
-    g.drawLine(2 * hscale, height, 2 * hscale, height - 2 * ticklen);
-
-    for (int i = 2; i < 10; i++) {
-      int offset = (int) ((double) hscale * log10((double) i));
-      g.drawLine(offset, height, offset, ytick);
-      g.drawLine(offset + hscale, height, offset + hscale, ytick);
-      g.drawLine(offset + 2 * hscale, height, offset + 2 * hscale, ytick);
-    }
-
-  }
-
-  private void DrawPlanets(Graphics g) {
-    int hscale = hscale();
-    int vscale = vscale();
-    int rscale = hscale / 30;
-
-    for (Planetesimal curr : planets) {
-      double au = log10(curr.axis());
-      double rad = pow(curr.getMassEarth(), 1.0 / 3.0);
-      int r = (int) (rad * (double) rscale);
-      int x0 = (int) (au * (double) hscale);
-      int x = x0 + hscale - r;
-      int y = vscale - r;
-      if (curr.gasGiant())
-        g.drawOval(x, y, 2 * r, 2 * r);
-      else
-        g.fillOval(x, y, 2 * r, 2 * r);
-    }
-  }
-
-
-  private int hscale() {
-    int width = getSize().width;
-    if ((width % 3) == 0) width--;
-    return width / 3;
-  }
-
-  private int vscale() {
-    int height = getSize().height;
-    if ((height % 2) == 0) height--;
-    return height / 2;
-  }
-
-
-  private static double log10(double a) {
-    return log(a) / log(10.0);
+    plot.drawPlanets(g, planets);
   }
 
 
@@ -0,0 +1,67 @@
+package accrete.applet;
+
+import accrete.Planetesimal;
+
+import java.awt.Graphics;
+
+import static java.awt.Color.black;
+import static java.lang.Math.log;
+import static java.lang.Math.pow;
+
+/**
+ * The log-axis layout of a system in an area of {@code width} by {@code height} pixels: three decades of axis from
+ * 0.1 to 100 AU across, with each planet drawn at mid height as a circle scaled by the cube root of its mass, filled
+ * unless it is a gas giant.
+ */
+public final class SystemPlot {
+
+    private final int hscale;
+    private final int vscale;
+
+    public SystemPlot(int width, int height) {
+        this.hscale = ((width % 3) == 0 ? width - 1 : width) / 3;
+        this.vscale = ((height % 2) == 0 ? height - 1 : height) / 2;
+    }
+
+    public void drawGrid(Graphics g) {
+        var width = hscale * 3;
+        var height = vscale * 2;
+
+        g.setColor(black);
+        g.drawRect(0, 0, width, height);
+        g.drawLine(0, vscale, width, vscale);
+
+        var ticklen = vscale / 10;
+        var ytick = height - ticklen;
+        g.drawLine(hscale, height, hscale, height - 2 * ticklen);
+        g.drawLine(2 * hscale, height, 2 * hscale, height - 2 * ticklen);
+
+        for (var i = 2; i < 10; i++) {
+            var offset = (int) (hscale * log10(i));
+            g.drawLine(offset, height, offset, ytick);
+            g.drawLine(offset + hscale, height, offset + hscale, ytick);
+            g.drawLine(offset + 2 * hscale, height, offset + 2 * hscale, ytick);
+        }
+    }
+
+    public void drawPlanets(Graphics g, Iterable<Planetesimal> planets) {
+        var rscale = hscale / 30;
+        g.setColor(black);
+
+        for (var curr : planets) {
+            var au = log10(curr.axis());
+            var rad = pow(curr.getMassEarth(), 1.0 / 3.0);
+            var r = (int) (rad * rscale);
+            var x = (int) (au * hscale) + hscale - r;
+            var y = vscale - r;
+            if (curr.gasGiant())
+                g.drawOval(x, y, 2 * r, 2 * r);
+            else
+                g.fillOval(x, y, 2 * r, 2 * r);
+        }
+    }
+
+    private static double log10(double a) {
+        return log(a) / log(10.0);
+    }
+}
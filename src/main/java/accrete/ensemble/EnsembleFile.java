@@ -0,0 +1,309 @@
+package accrete.ensemble;
+
+import accrete.Accrete;
+import accrete.Planetesimal;
+import accrete.Star;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The systems generated from a contiguous range of seeds, in seed order, followed by their
+ * {@link EnsembleStatistics}, the offset of each system in the file, and the offset of the statistics in the last
+ * eight bytes.  The {@link EnsembleIndex} of the systems is written next to the file, at {@link #indexFile}.  A
+ * system depends only on its seed, so files for adjacent ranges merge into exactly the file of the combined range
+ * by copying their systems verbatim and merging their statistics, offsets and indexes, without reading the systems
+ * back.
+ */
+public class EnsembleFile implements Closeable {
+
+    private static final int MAGIC = 0x4143454E;   // "ACEN"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 1 + 8 + 8 + 8 + 8;
+    private static final int PLANET_BYTES = 8 + 8 + 8 + 1;
+
+    public record Header(Star star, long firstSeed, long count) {
+
+        long endSeed() {
+            return firstSeed + count;
+        }
+    }
+
+    private final Header header;
+    private final Path indexFile;
+    private final DataOutputStream out;
+    private final EnsembleStatistics statistics = new EnsembleStatistics();
+    private final EnsembleIndex index = new EnsembleIndex();
+    private final long[] offsets;
+    private long offset = HEADER_BYTES;
+    private long written;
+
+    public EnsembleFile(Path file, Header header) throws IOException {
+        if (header.count() < 0 || header.count() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("cannot hold %d systems".formatted(header.count()));
+        this.header = header;
+        this.indexFile = indexFile(file);
+        this.offsets = new long[(int) header.count()];
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        writeHeader(out, header);
+    }
+
+    public void add(Iterable<Planetesimal> system) throws IOException {
+        if (written == header.count()) throw new IllegalStateException("all %d systems written".formatted(written));
+        var planets = new ArrayList<Planetesimal>();
+        system.forEach(planets::add);
+        offsets[(int) written] = offset;
+        out.writeShort(planets.size());
+        for (var planet : planets) {
+            out.writeDouble(planet.axis());
+            out.writeDouble(planet.eccn());
+            out.writeDouble(planet.mass());
+            out.writeBoolean(planet.gasGiant());
+        }
+        statistics.add(planets);
+        index.add((int) written, planets);
+        offset += 2 + (long) PLANET_BYTES * planets.size();
+        written++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (written != header.count())
+                throw new IllegalStateException("%d of %d systems written".formatted(written, header.count()));
+            statistics.write(out);
+            for (var system : offsets) out.writeLong(system);
+            out.writeLong(offset);
+        } finally {
+            out.close();
+        }
+        index.write(indexFile);
+    }
+
+    /**
+     * Writes the systems for {@code count} seeds from {@code firstSeed}.
+     */
+    public static EnsembleStatistics generate(Accrete gen, long firstSeed, long count, Path file) throws IOException {
+        try (var ensemble = new EnsembleFile(file, new Header(gen.star(), firstSeed, count))) {
+            for (var seed = firstSeed; seed < firstSeed + count; seed++) ensemble.add(gen.distributePlanets(new Random(seed)));
+            return ensemble.statistics;
+        }
+    }
+
+    /**
+     * Where the index of the systems of {@code file} is kept, ids being offsets from the first seed.
+     */
+    public static Path indexFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    public static Reader open(Path file) throws IOException {
+        return new Reader(FileChannel.open(file, READ));
+    }
+
+    public static Header header(Path file) throws IOException {
+        try (var in = new DataInputStream(Files.newInputStream(file))) {
+            return readHeader(in);
+        }
+    }
+
+    public static EnsembleStatistics statistics(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, READ)) {
+            return readStatistics(channel);
+        }
+    }
+
+    /**
+     * Reads back every system with its seed.
+     */
+    public static void systems(Path file, BiConsumer<Long, List<Planetesimal>> consumer) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            var header = readHeader(in);
+            for (var seed = header.firstSeed(); seed < header.endSeed(); seed++) {
+                var count = in.readShort();
+                var planets = new ArrayList<Planetesimal>(count);
+                for (var i = 0; i < count; i++)
+                    planets.add(new Planetesimal(header.star(), in.readDouble(), in.readDouble(), in.readDouble(), in.readBoolean()));
+                consumer.accept(seed, planets);
+            }
+        }
+    }
+
+    /**
+     * Combines the files of adjacent seed ranges, in seed order, into one file over their whole range.
+     */
+    public static EnsembleStatistics merge(List<Path> files, Path merged) throws IOException {
+        if (files.isEmpty()) throw new IllegalArgumentException("no files to merge");
+        var headers = new ArrayList<Header>();
+        var statistics = new EnsembleStatistics();
+        var index = new EnsembleIndex();
+        for (var file : files) {
+            var header = header(file);
+            if (!headers.isEmpty()) {
+                var previous = headers.get(headers.size() - 1);
+                if (!previous.star().equals(header.star()))
+                    throw new IllegalArgumentException("%s is for a different star".formatted(file));
+                if (previous.endSeed() != header.firstSeed())
+                    throw new IllegalArgumentException("%s does not follow seed %d".formatted(file, previous.endSeed() - 1));
+            }
+            headers.add(header);
+            statistics.merge(statistics(file));
+        }
+        var first = headers.get(0);
+        for (var i = 0; i < files.size(); i++)
+            index.addAll(EnsembleIndex.read(indexFile(files.get(i))), (int) (headers.get(i).firstSeed() - first.firstSeed()));
+        var last = headers.get(headers.size() - 1);
+
+        try (var out = FileChannel.open(merged, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            var bytes = new ByteArrayOutputStream();
+            writeHeader(new DataOutputStream(bytes), new Header(first.star(), first.firstSeed(), last.endSeed() - first.firstSeed()));
+            writeFully(out, ByteBuffer.wrap(bytes.toByteArray()));
+
+            var starts = new long[files.size()];
+            for (var i = 0; i < files.size(); i++) {
+                starts[i] = out.position();
+                try (var in = FileChannel.open(files.get(i), READ)) {
+                    var end = trailerOffset(in);
+                    for (var position = (long) HEADER_BYTES; position < end; )
+                        position += in.transferTo(position, end - position, out);
+                }
+            }
+
+            var end = out.position();
+            bytes.reset();
+            var trailer = new DataOutputStream(bytes);
+            statistics.write(trailer);
+            writeFully(out, ByteBuffer.wrap(bytes.toByteArray()));
+            for (var i = 0; i < files.size(); i++) {
+                try (var in = FileChannel.open(files.get(i), READ)) {
+                    var offsets = readOffsets(in, headers.get(i).count());
+                    while (offsets.hasRemaining()) offsets.putLong(offsets.position(), offsets.getLong() + starts[i] - HEADER_BYTES);
+                    writeFully(out, offsets.flip());
+                }
+            }
+            writeFully(out, ByteBuffer.allocate(Long.BYTES).putLong(0, end));
+        }
+        index.write(indexFile(merged));
+        return statistics;
+    }
+
+    private static void writeHeader(DataOutputStream out, Header header) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeDouble(header.star().mass());
+        out.writeDouble(header.star().luminosity());
+        out.writeLong(header.firstSeed());
+        out.writeLong(header.count());
+    }
+
+    private static Header readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("not an ensemble file");
+        if (in.readByte() != VERSION) throw new IOException("unsupported ensemble file version");
+        return new Header(new Star(in.readDouble(), in.readDouble()), in.readLong(), in.readLong());
+    }
+
+    private static Header readHeader(FileChannel in) throws IOException {
+        var buffer = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(in, buffer, 0);
+        return readHeader(new DataInputStream(new ByteArrayInputStream(buffer.array())));
+    }
+
+    private static long offsetsPosition(FileChannel in, long count) throws IOException {
+        return in.size() - Long.BYTES - Long.BYTES * count;
+    }
+
+    private static ByteBuffer readOffsets(FileChannel in, long count) throws IOException {
+        var buffer = ByteBuffer.allocate(Math.toIntExact(Long.BYTES * count));
+        readFully(in, buffer, offsetsPosition(in, count));
+        return buffer.flip();
+    }
+
+    private static long trailerOffset(FileChannel in) throws IOException {
+        var buffer = ByteBuffer.allocate(Long.BYTES);
+        readFully(in, buffer, in.size() - Long.BYTES);
+        return buffer.flip().getLong();
+    }
+
+    private static EnsembleStatistics readStatistics(FileChannel in) throws IOException {
+        var offset = trailerOffset(in);
+        var buffer = ByteBuffer.allocate((int) (offsetsPosition(in, readHeader(in).count()) - offset));
+        readFully(in, buffer, offset);
+        return EnsembleStatistics.read(new DataInputStream(new ByteArrayInputStream(buffer.array())));
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) throw new IOException("truncated ensemble file");
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) out.write(buffer);
+    }
+
+    /**
+     * Reads single systems of a file by id, the offset of their seed from the first seed.
+     */
+    public static final class Reader implements Closeable {
+        private final FileChannel in;
+        private final Header header;
+        private final long offsets;
+
+        private Reader(FileChannel in) throws IOException {
+            try {
+                this.in = in;
+                this.header = readHeader(in);
+                this.offsets = offsetsPosition(in, header.count());
+            } catch (IOException | RuntimeException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        public Header header() {
+            return header;
+        }
+
+        public List<Planetesimal> system(int id) throws IOException {
+            if (id < 0 || id >= header.count()) throw new IndexOutOfBoundsException("system %d of %d".formatted(id, header.count()));
+            var position = ByteBuffer.allocate(Long.BYTES);
+            readFully(in, position, offsets + (long) Long.BYTES * id);
+            var offset = position.flip().getLong();
+
+            var size = ByteBuffer.allocate(Short.BYTES);
+            readFully(in, size, offset);
+            var count = size.flip().getShort();
+            var buffer = ByteBuffer.allocate(PLANET_BYTES * count);
+            readFully(in, buffer, offset + Short.BYTES);
+            buffer.flip();
+            var planets = new ArrayList<Planetesimal>(count);
+            for (var i = 0; i < count; i++)
+                planets.add(new Planetesimal(header.star(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.get() != 0));
+            return planets;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package accrete.ensemble;
+
+import accrete.Accrete;
+import accrete.Planetesimal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.POSITIVE_INFINITY;
+import static java.lang.Math.pow;
+
+/**
+ * An index of the planets of an ensemble of systems, built while the systems are generated.  Every planet adds
+ * its system id to the bitmap of its bucket, bucketed by gas giant, log axis and log mass.  A {@link PlanetQuery}
+ * is answered from the bitmaps of the buckets its ranges overlap: systems found in buckets that lie wholly inside
+ * the ranges are certain matches, the rest only possible ones to be checked against the systems themselves.
+ * <p>
+ * An {@link EnsembleFile} writes the index of its systems next to it, at {@link EnsembleFile#indexFile}, with the
+ * offset of each system from the file's first seed as its id, so an ensemble on disk can be queried without
+ * generating or scanning it again.
+ */
+public class EnsembleIndex {
+
+    private static final int MAGIC = 0x41434958;   // "ACIX"
+    private static final int VERSION = 1;
+
+    private static final double[] axisBounds = logBounds(-1, 3, 16);      // 0.1 to 1000 AU
+    private static final double[] massBounds = logBounds(-8, 4, 8);       // 1e-8 to 1e4 Earth masses
+
+    private final SystemIds[][][] buckets = new SystemIds[2][axisBounds.length + 1][massBounds.length + 1];
+    private int maxId = -1;
+
+    public synchronized void add(int systemId, Iterable<Planetesimal> planets) {
+        if (systemId < 0) throw new IllegalArgumentException("negative system id " + systemId);
+        for (var planet : planets) {
+            var giant = planet.gasGiant() ? 1 : 0;
+            var a = bucket(axisBounds, planet.axis());
+            var m = bucket(massBounds, planet.getMassEarth());
+            if (buckets[giant][a][m] == null) buckets[giant][a][m] = new SystemIds();
+            buckets[giant][a][m].add(systemId);
+        }
+        maxId = Math.max(maxId, systemId);
+    }
+
+    public synchronized Matches find(PlanetQuery query) {
+        var words = (maxId + Long.SIZE) / Long.SIZE;
+        var certain = new long[words];
+        var possible = new long[words];
+        for (var giant = 0; giant < 2; giant++) {
+            if (query.gasGiant() != null && query.gasGiant() != (giant == 1)) continue;
+            for (var a = 0; a <= axisBounds.length; a++) {
+                if (!overlaps(axisBounds, a, query.minAxis(), query.maxAxis())) continue;
+                for (var m = 0; m <= massBounds.length; m++) {
+                    if (!overlaps(massBounds, m, query.minMassEarth(), query.maxMassEarth())) continue;
+                    var ids = buckets[giant][a][m];
+                    if (ids == null) continue;
+                    var exact = !query.constrainsEccn()
+                            && covers(axisBounds, a, query.minAxis(), query.maxAxis())
+                            && covers(massBounds, m, query.minMassEarth(), query.maxMassEarth());
+                    ids.orInto(exact ? certain : possible);
+                }
+            }
+        }
+        var matches = new Matches(BitSet.valueOf(certain), BitSet.valueOf(possible));
+        matches.possible().andNot(matches.certain());
+        return matches;
+    }
+
+    /**
+     * The systems with a planet matching each of {@code queries}, not necessarily the same planet.
+     */
+    public Matches findAll(PlanetQuery... queries) {
+        var result = find(queries[0]);
+        for (var i = 1; i < queries.length; i++) result = result.and(find(queries[i]));
+        return result;
+    }
+
+    /**
+     * The systems matching each of {@code queries}, checking the possible matches against the planets of the
+     * systems given by {@code systems}.
+     */
+    public BitSet select(IntFunction<? extends Iterable<Planetesimal>> systems, PlanetQuery... queries) {
+        var matches = findAll(queries);
+        var result = (BitSet) matches.certain().clone();
+        matches.possible().stream().forEach(id -> {
+            var planets = systems.apply(id);
+            for (var query : queries) if (!query.matchesAny(planets)) return;
+            result.set(id);
+        });
+        return result;
+    }
+
+    /**
+     * The systems of {@code ensemble} matching each of {@code queries}, checking the possible matches against the
+     * systems stored in it, when this is the index of {@code ensemble}.
+     */
+    public BitSet select(Path ensemble, PlanetQuery... queries) throws IOException {
+        var matches = findAll(queries);
+        var result = (BitSet) matches.certain().clone();
+        try (var systems = EnsembleFile.open(ensemble)) {
+            var possible = matches.possible();
+            next:
+            for (var id = possible.nextSetBit(0); id >= 0; id = possible.nextSetBit(id + 1)) {
+                var planets = systems.system(id);
+                for (var query : queries) if (!query.matchesAny(planets)) continue next;
+                result.set(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The index of the systems stored in {@code ensemble}.
+     */
+    public static EnsembleIndex of(Path ensemble) throws IOException {
+        var index = new EnsembleIndex();
+        var firstSeed = EnsembleFile.header(ensemble).firstSeed();
+        EnsembleFile.systems(ensemble, (seed, planets) -> index.add((int) (seed - firstSeed), planets));
+        return index;
+    }
+
+    /**
+     * Adds the systems of {@code other} with their ids moved up by {@code shift}.
+     */
+    public synchronized void addAll(EnsembleIndex other, int shift) {
+        if (shift < 0) throw new IllegalArgumentException("negative shift " + shift);
+        for (var giant = 0; giant < 2; giant++) {
+            for (var a = 0; a <= axisBounds.length; a++) {
+                for (var m = 0; m <= massBounds.length; m++) {
+                    var ids = other.buckets[giant][a][m];
+                    if (ids == null) continue;
+                    if (buckets[giant][a][m] == null) buckets[giant][a][m] = new SystemIds();
+                    var into = buckets[giant][a][m];
+                    ids.forEach(id -> into.add(id + shift));
+                }
+            }
+        }
+        if (other.maxId >= 0) maxId = Math.max(maxId, other.maxId + shift);
+    }
+
+    /**
+     * Writes the bucket grid and, bucket by bucket, the ids of every bucket that holds any.
+     */
+    public synchronized void write(Path file) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeShort(axisBounds.length + 1);
+            out.writeShort(massBounds.length + 1);
+            out.writeInt(maxId);
+            for (var giant = 0; giant < 2; giant++) {
+                for (var a = 0; a <= axisBounds.length; a++) {
+                    for (var m = 0; m <= massBounds.length; m++) {
+                        var ids = buckets[giant][a][m];
+                        out.writeBoolean(ids != null);
+                        if (ids != null) ids.write(out);
+                    }
+                }
+            }
+        }
+    }
+
+    public static EnsembleIndex read(Path file) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("not an ensemble index");
+            if (in.readByte() != VERSION) throw new IOException("unsupported ensemble index version");
+            if (in.readShort() != axisBounds.length + 1 || in.readShort() != massBounds.length + 1)
+                throw new IOException("ensemble index has different buckets");
+            var index = new EnsembleIndex();
+            index.maxId = in.readInt();
+            for (var giant = 0; giant < 2; giant++) {
+                for (var a = 0; a <= axisBounds.length; a++) {
+                    for (var m = 0; m <= massBounds.length; m++) {
+                        if (in.readBoolean()) index.buckets[giant][a][m] = SystemIds.read(in);
+                    }
+                }
+            }
+            return index;
+        }
+    }
+
+    public record Matches(BitSet certain, BitSet possible) {
+
+        Matches and(Matches other) {
+            var certain = (BitSet) certain().clone();
+            certain.and(other.certain());
+            var possible = (BitSet) certain().clone();
+            possible.or(possible());
+            var others = (BitSet) other.certain().clone();
+            others.or(other.possible());
+            possible.and(others);
+            possible.andNot(certain);
+            return new Matches(certain, possible);
+        }
+    }
+
+    private static double[] logBounds(int fromDecade, int toDecade, int perDecade) {
+        var bounds = new double[(toDecade - fromDecade) * perDecade + 1];
+        for (var i = 0; i < bounds.length; i++) bounds[i] = pow(10.0, fromDecade + (double) i / perDecade);
+        return bounds;
+    }
+
+    /**
+     * Bucket {@code i} holds the values in {@code [bounds[i - 1], bounds[i])}, open ended at either end.
+     */
+    private static int bucket(double[] bounds, double value) {
+        var at = Arrays.binarySearch(bounds, value);
+        return at >= 0 ? at + 1 : -at - 1;
+    }
+
+    private static double lower(double[] bounds, int bucket) {
+        return bucket == 0 ? NEGATIVE_INFINITY : bounds[bucket - 1];
+    }
+
+    private static double upper(double[] bounds, int bucket) {
+        return bucket == bounds.length ? POSITIVE_INFINITY : bounds[bucket];
+    }
+
+    private static boolean overlaps(double[] bounds, int bucket, double min, double max) {
+        return lower(bounds, bucket) <= max && upper(bounds, bucket) > min;
+    }
+
+    private static boolean covers(double[] bounds, int bucket, double min, double max) {
+        return min <= lower(bounds, bucket) && upper(bounds, bucket) <= max;
+    }
+
+    public static void main(String... args) throws IOException {
+        var count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        var file = Path.of(args.length > 1 ? args[1] : "ensemble.bin");
+        if (Files.notExists(file) || EnsembleFile.header(file).count() != count)
+            EnsembleFile.generate(new Accrete(), 0, count, file);
+
+        var index = read(EnsembleFile.indexFile(file));
+        var earthLike = PlanetQuery.planet().axis(0.8, 1.5).massEarth(0.5, 2.0).rocky();
+        var start = System.nanoTime();
+        var matches = index.find(earthLike);
+        var lookup = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        var selected = index.select(file, earthLike);
+        var confirm = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%d systems: %d certain, %d possible in %.2f ms; %d match, confirmed from %s in %.2f ms%n",
+                count, matches.certain().cardinality(), matches.possible().cardinality(), lookup,
+                selected.cardinality(), file, confirm);
+    }
+}
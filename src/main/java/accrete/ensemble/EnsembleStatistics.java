@@ -0,0 +1,106 @@
+package accrete.ensemble;
+
+import accrete.Planetesimal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.POSITIVE_INFINITY;
+
+/**
+ * Aggregates over an ensemble that merge exactly: counts, extremes and an exact sum of masses, so statistics merged
+ * from shards are identical to those of one run over all their systems, whatever the order.
+ */
+public class EnsembleStatistics {
+
+    private long systems;
+    private long planets;
+    private long gasGiants;
+    private BigDecimal totalMass = BigDecimal.ZERO;
+    private double minAxis = POSITIVE_INFINITY;
+    private double maxAxis = NEGATIVE_INFINITY;
+    private double maxMass = NEGATIVE_INFINITY;
+
+    public void add(Iterable<Planetesimal> system) {
+        systems++;
+        for (var planet : system) {
+            planets++;
+            if (planet.gasGiant()) gasGiants++;
+            totalMass = totalMass.add(new BigDecimal(planet.mass()));
+            minAxis = Math.min(minAxis, planet.axis());
+            maxAxis = Math.max(maxAxis, planet.axis());
+            maxMass = Math.max(maxMass, planet.mass());
+        }
+    }
+
+    public void merge(EnsembleStatistics other) {
+        systems += other.systems;
+        planets += other.planets;
+        gasGiants += other.gasGiants;
+        totalMass = totalMass.add(other.totalMass);
+        minAxis = Math.min(minAxis, other.minAxis);
+        maxAxis = Math.max(maxAxis, other.maxAxis);
+        maxMass = Math.max(maxMass, other.maxMass);
+    }
+
+    public long systems() {
+        return systems;
+    }
+
+    public long planets() {
+        return planets;
+    }
+
+    public long gasGiants() {
+        return gasGiants;
+    }
+
+    public BigDecimal totalMass() {
+        return totalMass;
+    }
+
+    public double minAxis() {
+        return minAxis;
+    }
+
+    public double maxAxis() {
+        return maxAxis;
+    }
+
+    public double maxMass() {
+        return maxMass;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeLong(systems);
+        out.writeLong(planets);
+        out.writeLong(gasGiants);
+        out.writeUTF(totalMass.toString());
+        out.writeDouble(minAxis);
+        out.writeDouble(maxAxis);
+        out.writeDouble(maxMass);
+    }
+
+    static EnsembleStatistics read(DataInput in) throws IOException {
+        var statistics = new EnsembleStatistics();
+        statistics.systems = in.readLong();
+        statistics.planets = in.readLong();
+        statistics.gasGiants = in.readLong();
+        statistics.totalMass = new BigDecimal(in.readUTF());
+        statistics.minAxis = in.readDouble();
+        statistics.maxAxis = in.readDouble();
+        statistics.maxMass = in.readDouble();
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        var perSystem = (double) Math.max(systems, 1);
+        return "%d systems, %.3f planets and %.3f gas giants per system, mean planet mass %.4g, axes %.4g to %.4g AU".formatted(
+                systems, planets / perSystem, gasGiants / perSystem,
+                planets == 0 ? 0.0 : totalMass.doubleValue() / planets, minAxis, maxAxis);
+    }
+}
@@ -0,0 +1,61 @@
+package accrete.ensemble;
+
+import accrete.Planetesimal;
+
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.POSITIVE_INFINITY;
+
+/**
+ * A predicate matched by a single planet: inclusive ranges over axis (AU), mass (Earth masses) and eccentricity,
+ * optionally restricted to gas giants or to rocky planets.  A system matches when any of its planets does.
+ */
+public record PlanetQuery(
+        double minAxis,
+        double maxAxis,
+        double minMassEarth,
+        double maxMassEarth,
+        double minEccn,
+        double maxEccn,
+        Boolean gasGiant
+) {
+
+    public static PlanetQuery planet() {
+        return new PlanetQuery(NEGATIVE_INFINITY, POSITIVE_INFINITY, NEGATIVE_INFINITY, POSITIVE_INFINITY, NEGATIVE_INFINITY, POSITIVE_INFINITY, null);
+    }
+
+    public PlanetQuery axis(double min, double max) {
+        return new PlanetQuery(min, max, minMassEarth, maxMassEarth, minEccn, maxEccn, gasGiant);
+    }
+
+    public PlanetQuery massEarth(double min, double max) {
+        return new PlanetQuery(minAxis, maxAxis, min, max, minEccn, maxEccn, gasGiant);
+    }
+
+    public PlanetQuery eccn(double min, double max) {
+        return new PlanetQuery(minAxis, maxAxis, minMassEarth, maxMassEarth, min, max, gasGiant);
+    }
+
+    public PlanetQuery giant() {
+        return new PlanetQuery(minAxis, maxAxis, minMassEarth, maxMassEarth, minEccn, maxEccn, true);
+    }
+
+    public PlanetQuery rocky() {
+        return new PlanetQuery(minAxis, maxAxis, minMassEarth, maxMassEarth, minEccn, maxEccn, false);
+    }
+
+    public boolean matches(Planetesimal planet) {
+        return planet.axis() >= minAxis && planet.axis() <= maxAxis
+                && planet.getMassEarth() >= minMassEarth && planet.getMassEarth() <= maxMassEarth
+                && planet.eccn() >= minEccn && planet.eccn() <= maxEccn
+                && (gasGiant == null || gasGiant == planet.gasGiant());
+    }
+
+    public boolean matchesAny(Iterable<Planetesimal> planets) {
+        for (var planet : planets) if (matches(planet)) return true;
+        return false;
+    }
+
+    boolean constrainsEccn() {
+        return minEccn > NEGATIVE_INFINITY || maxEccn < POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,80 @@
+package accrete.ensemble;
+
+import accrete.Accrete;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs an ensemble over a range of seeds as shards in separate JVMs, each writing its own {@link EnsembleFile},
+ * then merges the shard files into one.
+ * <pre>
+ * run &lt;first seed&gt; &lt;count&gt; &lt;shards&gt; &lt;directory&gt;    start a worker JVM per shard on this machine and merge
+ * shard &lt;index&gt; &lt;shards&gt; &lt;first seed&gt; &lt;count&gt; &lt;directory&gt;    run one shard, e.g. on its own node
+ * merge &lt;shards&gt; &lt;directory&gt;    merge the shard files of a directory
+ * </pre>
+ * The merged file is {@code ensemble.bin}, identical to running the whole range in one process.  When a worker
+ * fails, {@code run} stops the others before it gives up.
+ */
+public class ShardedEnsemble {
+
+    public static long shardStart(long firstSeed, long count, int index, int shards) {
+        return firstSeed + count * index / shards;
+    }
+
+    public static Path shardFile(Path directory, int index) {
+        return directory.resolve("shard-%d.bin".formatted(index));
+    }
+
+    public static EnsembleStatistics shard(int index, int shards, long firstSeed, long count, Path directory) throws IOException {
+        var from = shardStart(firstSeed, count, index, shards);
+        var to = shardStart(firstSeed, count, index + 1, shards);
+        Files.createDirectories(directory);
+        return EnsembleFile.generate(new Accrete(), from, to - from, shardFile(directory, index));
+    }
+
+    public static EnsembleStatistics merge(int shards, Path directory) throws IOException {
+        var files = new ArrayList<Path>();
+        for (var i = 0; i < shards; i++) files.add(shardFile(directory, i));
+        return EnsembleFile.merge(files, directory.resolve("ensemble.bin"));
+    }
+
+    public static EnsembleStatistics run(long firstSeed, long count, int shards, Path directory) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        var workers = new ArrayList<Process>();
+        try {
+            for (var i = 0; i < shards; i++) {
+                workers.add(new ProcessBuilder(List.of(
+                        java, "-cp", System.getProperty("java.class.path"), ShardedEnsemble.class.getName(),
+                        "shard", Integer.toString(i), Integer.toString(shards),
+                        Long.toString(firstSeed), Long.toString(count), directory.toString()
+                )).inheritIO().start());
+            }
+            for (var i = 0; i < shards; i++) {
+                var status = workers.get(i).waitFor();
+                if (status != 0) throw new IOException("shard %d exited with %d".formatted(i, status));
+            }
+        } finally {
+            for (var worker : workers) {
+                if (!worker.isAlive()) continue;
+                worker.destroy();
+                worker.waitFor();
+            }
+        }
+        return merge(shards, directory);
+    }
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        var statistics = switch (args[0]) {
+            case "run" -> run(Long.parseLong(args[1]), Long.parseLong(args[2]), Integer.parseInt(args[3]), Path.of(args[4]));
+            case "shard" -> shard(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]), Long.parseLong(args[4]), Path.of(args[5]));
+            case "merge" -> merge(Integer.parseInt(args[1]), Path.of(args[2]));
+            default -> throw new IllegalArgumentException("expected run, shard or merge, not " + args[0]);
+        };
+        System.out.println(statistics);
+    }
+}
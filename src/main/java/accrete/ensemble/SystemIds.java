@@ -0,0 +1,138 @@
+package accrete.ensemble;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of system ids.  Ids are split into chunks of 2^16; a chunk holds a sorted array of its low bits
+ * while it is sparse and switches to a bitmap once the array would be larger than one.
+ */
+final class SystemIds {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = (1 << CHUNK_BITS) / Long.SIZE;
+
+    private Chunk[] chunks = new Chunk[0];
+
+    void add(int id) {
+        var index = id >>> CHUNK_BITS;
+        if (index >= chunks.length) chunks = Arrays.copyOf(chunks, Math.max(index + 1, chunks.length * 2));
+        if (chunks[index] == null) chunks[index] = new Chunk();
+        chunks[index].add((char) id);
+    }
+
+    /**
+     * Sets the bit of every id in this set in {@code words}, which must be long enough to hold the largest id.
+     */
+    void orInto(long[] words) {
+        for (var index = 0; index < chunks.length; index++) {
+            var chunk = chunks[index];
+            if (chunk == null) continue;
+            var base = index << CHUNK_BITS;
+            if (chunk.bits != null) {
+                var offset = base / Long.SIZE;
+                for (var i = 0; i < BITMAP_WORDS && offset + i < words.length; i++) words[offset + i] |= chunk.bits[i];
+            } else {
+                for (var i = 0; i < chunk.size; i++) {
+                    var id = base | chunk.values[i];
+                    words[id >>> 6] |= 1L << id;
+                }
+            }
+        }
+    }
+
+    void forEach(IntConsumer action) {
+        for (var index = 0; index < chunks.length; index++) {
+            var chunk = chunks[index];
+            if (chunk == null) continue;
+            var base = index << CHUNK_BITS;
+            if (chunk.bits != null) {
+                for (var i = 0; i < BITMAP_WORDS; i++) {
+                    for (var word = chunk.bits[i]; word != 0; word &= word - 1)
+                        action.accept(base | (i << 6) | Long.numberOfTrailingZeros(word));
+                }
+            } else {
+                for (var i = 0; i < chunk.size; i++) action.accept(base | chunk.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Writes the chunks in order, each as its index and either its size and values or -1 and its bitmap.
+     */
+    void write(DataOutput out) throws IOException {
+        var count = 0;
+        for (var chunk : chunks) if (chunk != null) count++;
+        out.writeInt(count);
+        for (var index = 0; index < chunks.length; index++) {
+            var chunk = chunks[index];
+            if (chunk == null) continue;
+            out.writeInt(index);
+            if (chunk.bits != null) {
+                out.writeShort(-1);
+                for (var word : chunk.bits) out.writeLong(word);
+            } else {
+                out.writeShort(chunk.size);
+                for (var i = 0; i < chunk.size; i++) out.writeChar(chunk.values[i]);
+            }
+        }
+    }
+
+    static SystemIds read(DataInput in) throws IOException {
+        var result = new SystemIds();
+        for (var count = in.readInt(); count > 0; count--) {
+            var index = in.readInt();
+            if (index < 0 || index > (Integer.MAX_VALUE >>> CHUNK_BITS)) throw new IOException("bad chunk index " + index);
+            if (index >= result.chunks.length) result.chunks = Arrays.copyOf(result.chunks, index + 1);
+            var chunk = result.chunks[index] = new Chunk();
+            var size = in.readShort();
+            if (size < 0) {
+                chunk.bits = new long[BITMAP_WORDS];
+                for (var i = 0; i < BITMAP_WORDS; i++) chunk.bits[i] = in.readLong();
+                chunk.values = null;
+            } else {
+                if (size > ARRAY_LIMIT) throw new IOException("chunk of %d values".formatted(size));
+                chunk.values = new char[Math.max(size, 4)];
+                for (var i = 0; i < size; i++) chunk.values[i] = in.readChar();
+                chunk.size = size;
+            }
+        }
+        return result;
+    }
+
+    private static final class Chunk {
+        private char[] values = new char[4];
+        private int size;
+        private long[] bits;
+
+        void add(char value) {
+            if (bits != null) {
+                bits[value >>> 6] |= 1L << value;
+                return;
+            }
+            var at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) return;
+            if (size == ARRAY_LIMIT) {
+                toBitmap();
+                add(value);
+                return;
+            }
+            at = -at - 1;
+            if (size == values.length) values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_LIMIT));
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = value;
+            size++;
+        }
+
+        private void toBitmap() {
+            bits = new long[BITMAP_WORDS];
+            for (var i = 0; i < size; i++) bits[values[i] >>> 6] |= 1L << values[i];
+            values = null;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package accrete.ensemble;
+
+import accrete.DustBand;
+import accrete.Planetesimal;
+
+/**
+ * A condition on a whole system that can also be checked against a run in progress, so a search can abandon a
+ * run once the condition can no longer be met.
+ */
+public interface SystemPredicate {
+
+    boolean matches(Iterable<Planetesimal> planets);
+
+    /**
+     * Whether a run with these planets and dust bands so far may still end matching.  A predicate is exact when
+     * this is false only for runs that cannot end matching, as by default, where it is always true.
+     */
+    default boolean isReachable(Iterable<Planetesimal> planets, Iterable<DustBand> dustBands) {
+        return true;
+    }
+
+    default SystemPredicate and(SystemPredicate other) {
+        var self = this;
+        return new SystemPredicate() {
+            @Override
+            public boolean matches(Iterable<Planetesimal> planets) {
+                return self.matches(planets) && other.matches(planets);
+            }
+
+            @Override
+            public boolean isReachable(Iterable<Planetesimal> planets, Iterable<DustBand> dustBands) {
+                return self.isReachable(planets, dustBands) && other.isReachable(planets, dustBands);
+            }
+        };
+    }
+
+    /**
+     * Between {@code min} and {@code max} planets, inclusive, match {@code query}; for example exactly one gas giant
+     * inside 6 AU is {@code count(planet().axis(0, 6).giant(), 1, 1)}.  This is exact, so never abandons a run: any
+     * nucleus still to come may sweep dust from near the star out to several times its axis and coalesce with
+     * planets as far in, so no remaining dust rules out a change to the planets of a range.
+     */
+    static SystemPredicate count(PlanetQuery query, int min, int max) {
+        return new SystemPredicate() {
+            @Override
+            public boolean matches(Iterable<Planetesimal> planets) {
+                var count = 0;
+                for (var planet : planets) if (query.matches(planet)) count++;
+                return count >= min && count <= max;
+            }
+        };
+    }
+
+    /**
+     * As {@link #count}, but takes the count in the axis range of {@code query} as settled once no dust remains
+     * within a factor {@code reach} of the range's ends, abandoning runs that then fail it.  This is a heuristic:
+     * it holds for the usual nuclei but not for every one, so a search with it is approximate and may miss matching
+     * systems, though every system it does report matches.
+     */
+    static SystemPredicate approximateCount(PlanetQuery query, int min, int max, double reach) {
+        if (!(reach >= 1.0)) throw new IllegalArgumentException("reach must be at least 1: " + reach);
+        var exact = count(query, min, max);
+        return new SystemPredicate() {
+            @Override
+            public boolean matches(Iterable<Planetesimal> planets) {
+                return exact.matches(planets);
+            }
+
+            @Override
+            public boolean isReachable(Iterable<Planetesimal> planets, Iterable<DustBand> dustBands) {
+                var inner = query.minAxis() / reach;
+                var outer = query.maxAxis() * reach;
+                for (var band : dustBands) if (band.dust() && band.outer() > inner && band.inner() < outer) return true;
+                return matches(planets);
+            }
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package accrete.gallery;
+
+import accrete.Accrete;
+import accrete.Planetesimal;
+import accrete.applet.SystemPlot;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.awt.Color.black;
+import static java.awt.Color.white;
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+/**
+ * Renders many systems without a display, using the {@link SystemPlot} layout of the applet.  Each system is drawn
+ * into its own tile on a thread pool, over a copy of the grid rendered once up front, and the tiles are assembled
+ * into gallery pages written as PNG files.  The system in each tile is the one generated from the seed printed in
+ * its corner.
+ */
+public class AccreteGallery {
+
+    private final Accrete gen = new Accrete();
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int columns;
+    private final int rows;
+    private final SystemPlot plot;
+    private final BufferedImage grid;
+
+    public AccreteGallery(int tileWidth, int tileHeight, int columns, int rows) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.columns = columns;
+        this.rows = rows;
+        this.plot = new SystemPlot(tileWidth, tileHeight);
+        this.grid = new BufferedImage(tileWidth, tileHeight, TYPE_INT_RGB);
+
+        var g = grid.createGraphics();
+        g.setColor(white);
+        g.fillRect(0, 0, tileWidth, tileHeight);
+        plot.drawGrid(g);
+        g.dispose();
+    }
+
+    public BufferedImage renderTile(long seed, Iterable<Planetesimal> planets) {
+        var tile = new BufferedImage(tileWidth, tileHeight, TYPE_INT_RGB);
+        var g = tile.createGraphics();
+        g.drawImage(grid, 0, 0, null);
+        plot.drawPlanets(g, planets);
+        g.setColor(black);
+        g.drawString(Long.toString(seed), 4, g.getFontMetrics().getAscent() + 2);
+        g.dispose();
+        return tile;
+    }
+
+    public BufferedImage renderPage(long firstSeed, int count, ExecutorService executor) {
+        return assemble(renderTiles(firstSeed, count, executor));
+    }
+
+    private List<CompletableFuture<BufferedImage>> renderTiles(long firstSeed, int count, ExecutorService executor) {
+        var tiles = new ArrayList<CompletableFuture<BufferedImage>>(count);
+        for (var i = 0; i < count; i++) {
+            var seed = firstSeed + i;
+            tiles.add(supplyAsync(() -> renderTile(seed, gen.distributePlanets(new Random(seed))), executor));
+        }
+        return tiles;
+    }
+
+    private BufferedImage assemble(List<CompletableFuture<BufferedImage>> tiles) {
+        var page = new BufferedImage(columns * tileWidth, rows * tileHeight, TYPE_INT_RGB);
+        var g = page.createGraphics();
+        g.setColor(white);
+        g.fillRect(0, 0, page.getWidth(), page.getHeight());
+        for (var i = 0; i < tiles.size(); i++) {
+            g.drawImage(tiles.get(i).join(), (i % columns) * tileWidth, (i / columns) * tileHeight, null);
+        }
+        g.dispose();
+        return page;
+    }
+
+    /**
+     * Writes the systems for {@code count} consecutive seeds from {@code firstSeed} to {@code directory} as
+     * {@code gallery-<first seed on page>.png} pages of {@code columns} by {@code rows} tiles.  The tiles of each
+     * page are submitted before the previous page is assembled and encoded, so the pool keeps rendering meanwhile.
+     */
+    public void write(Path directory, long firstSeed, long count, ExecutorService executor) throws IOException {
+        Files.createDirectories(directory);
+        var pageSize = columns * rows;
+        var next = renderTiles(firstSeed, (int) Math.min(pageSize, count), executor);
+        for (var done = 0L; done < count; done += pageSize) {
+            var tiles = next;
+            var following = done + pageSize;
+            next = following < count ? renderTiles(firstSeed + following, (int) Math.min(pageSize, count - following), executor) : List.of();
+            var file = directory.resolve("gallery-%d.png".formatted(firstSeed + done));
+            if (!ImageIO.write(assemble(tiles), "png", file.toFile())) throw new IOException("no PNG writer");
+        }
+    }
+
+    public static void main(String... args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        var directory = Path.of(args.length > 0 ? args[0] : "gallery");
+        var firstSeed = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+        var count = args.length > 2 ? Long.parseLong(args[2]) : 100L;
+
+        var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            new AccreteGallery(721, 241, 4, 16).write(directory, firstSeed, count, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
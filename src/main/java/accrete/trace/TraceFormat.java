@@ -0,0 +1,69 @@
+package accrete.trace;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+class TraceFormat {
+
+    static final int MAGIC = 0x41435452;   // "ACTR"
+    static final int VERSION = 1;
+
+    static final int GAS_GIANT = 1;
+    static final int SAME_AS_TSML = 2;
+    static final int DUST = 1;
+    static final int GAS = 2;
+
+    /**
+     * The run {@code [from, from + removed)} of one list replaced by {@code inserted} elements of the next.
+     */
+    record Delta(int from, int removed, int inserted) {
+
+        static <T> Delta between(List<T> previous, List<T> next) {
+            var prefix = 0;
+            var limit = Math.min(previous.size(), next.size());
+            while (prefix < limit && previous.get(prefix).equals(next.get(prefix))) prefix++;
+            var suffix = 0;
+            while (suffix < limit - prefix
+                    && previous.get(previous.size() - 1 - suffix).equals(next.get(next.size() - 1 - suffix))) suffix++;
+            return new Delta(prefix, previous.size() - prefix - suffix, next.size() - prefix - suffix);
+        }
+
+        static Delta read(ByteBuffer in) {
+            return new Delta(readVarint(in), readVarint(in), readVarint(in));
+        }
+
+        void write(DataOutput out) throws IOException {
+            writeVarint(out, from);
+            writeVarint(out, removed);
+            writeVarint(out, inserted);
+        }
+
+        <T> List<T> inserted(List<T> next) {
+            return next.subList(from, from + inserted);
+        }
+
+        <T> void apply(List<T> list, List<T> inserted) {
+            list.subList(from, from + removed).clear();
+            list.addAll(from, inserted);
+        }
+    }
+
+    static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarint(ByteBuffer in) {
+        var value = 0;
+        for (var shift = 0; ; shift += 7) {
+            var b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+}
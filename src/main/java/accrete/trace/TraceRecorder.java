@@ -0,0 +1,97 @@
+package accrete.trace;
+
+import accrete.AccretionListener;
+import accrete.DustBand;
+import accrete.Planetesimal;
+import accrete.Star;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.collections.PersistentCollection;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static accrete.trace.TraceFormat.*;
+
+/**
+ * Records a run as a stream of deltas, read back by {@link TraceReplayer}.  The header holds the star and the
+ * initial dust bands; each nucleus then adds its position, the mass it reached, and the runs of planets and dust
+ * bands that replaced a run of the previous state, found by trimming what is unchanged at either end.
+ */
+public class TraceRecorder implements AccretionListener, Closeable {
+
+    private final DataOutputStream out;
+    private List<Planetesimal> planets = List.of();
+    private List<DustBand> dustBands = List.of();
+
+    public TraceRecorder(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    @Override
+    public void started(Star star, Sequence<DustBand> dustBands) {
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeDouble(star.mass());
+            out.writeDouble(star.luminosity());
+            this.dustBands = dustBands.toList();
+            writeVarint(out, this.dustBands.size());
+            writeBands(this.dustBands);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void accreted(Planetesimal nucleus, Planetesimal tsml, PersistentCollection<Planetesimal> planets, Sequence<DustBand> dustBands) {
+        var nextPlanets = new ArrayList<Planetesimal>();
+        planets.forEach(nextPlanets::add);
+        var nextBands = dustBands.toList();
+        try {
+            out.writeDouble(nucleus.axis());
+            out.writeDouble(nucleus.eccn());
+            out.writeDouble(tsml.mass());
+            out.writeByte(tsml.gasGiant() ? GAS_GIANT : 0);
+
+            var p = Delta.between(this.planets, nextPlanets);
+            p.write(out);
+            for (var planet : p.inserted(nextPlanets)) {
+                if (planet.equals(tsml)) {
+                    out.writeByte(SAME_AS_TSML);
+                } else {
+                    out.writeByte(planet.gasGiant() ? GAS_GIANT : 0);
+                    out.writeDouble(planet.axis());
+                    out.writeDouble(planet.eccn());
+                    out.writeDouble(planet.mass());
+                }
+            }
+
+            var b = Delta.between(this.dustBands, nextBands);
+            b.write(out);
+            writeBands(b.inserted(nextBands));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.planets = nextPlanets;
+        this.dustBands = nextBands;
+    }
+
+    private void writeBands(List<DustBand> bands) throws IOException {
+        for (var band : bands) {
+            out.writeDouble(band.inner());
+            out.writeDouble(band.outer());
+            out.writeByte((band.dust() ? DUST : 0) | (band.gas() ? GAS : 0));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
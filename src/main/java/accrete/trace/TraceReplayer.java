@@ -0,0 +1,136 @@
+package accrete.trace;
+
+import accrete.DustBand;
+import accrete.Planetesimal;
+import accrete.Star;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static accrete.Planetesimal.protoplanetMass;
+import static accrete.trace.TraceFormat.*;
+
+/**
+ * Rebuilds the state of a run recorded by {@link TraceRecorder} at any step without rerunning it.  Loading makes
+ * one pass over the deltas, keeping the offset of every step and a full copy of the state every
+ * {@value #KEYFRAME_INTERVAL} steps, so seeking applies at most that many deltas to the nearest copy.
+ */
+public class TraceReplayer {
+
+    static final int KEYFRAME_INTERVAL = 1024;
+
+    public record Frame(
+            int step,
+            Planetesimal nucleus,
+            Planetesimal tsml,
+            List<Planetesimal> planets,
+            List<DustBand> dustBands
+    ) {
+    }
+
+    private final ByteBuffer trace;
+    private final Star star;
+    private int[] offsets = new int[KEYFRAME_INTERVAL];
+    private final List<Frame> keyframes = new ArrayList<>();
+    private int steps;
+
+    public TraceReplayer(byte[] trace) {
+        this.trace = ByteBuffer.wrap(trace).asReadOnlyBuffer();
+        var in = this.trace.duplicate();
+        if (in.getInt() != MAGIC) throw new IllegalArgumentException("not an accretion trace");
+        if (in.get() != VERSION) throw new IllegalArgumentException("unsupported trace version");
+        star = new Star(in.getDouble(), in.getDouble());
+
+        var planets = new ArrayList<Planetesimal>();
+        var dustBands = readBands(in, readVarint(in));
+        Planetesimal tsml = null;
+        while (true) {
+            if (steps % KEYFRAME_INTERVAL == 0) keyframes.add(frame(steps, tsml, planets, dustBands));
+            if (steps == offsets.length) offsets = Arrays.copyOf(offsets, steps * 2);
+            offsets[steps] = in.position();
+            if (!in.hasRemaining()) break;
+            tsml = readStep(in, planets, dustBands);
+            steps++;
+        }
+    }
+
+    public static TraceReplayer read(InputStream in) throws IOException {
+        return new TraceReplayer(in.readAllBytes());
+    }
+
+    public static TraceReplayer read(Path file) throws IOException {
+        return new TraceReplayer(Files.readAllBytes(file));
+    }
+
+    public Star star() {
+        return star;
+    }
+
+    /**
+     * The number of nuclei recorded; frames run from 0, the initial state, to this.
+     */
+    public int steps() {
+        return steps;
+    }
+
+    public Frame frame(int step) {
+        if (step < 0 || step > steps) throw new IndexOutOfBoundsException("step " + step + " of " + steps);
+        var keyframe = keyframes.get(step / KEYFRAME_INTERVAL);
+        if (keyframe.step() == step) return keyframe;
+
+        var planets = new ArrayList<>(keyframe.planets());
+        var dustBands = new ArrayList<>(keyframe.dustBands());
+        var in = trace.duplicate().position(offsets[keyframe.step()]);
+        Planetesimal tsml = null;
+        for (var i = keyframe.step(); i < step; i++) tsml = readStep(in, planets, dustBands);
+        return frame(step, tsml, planets, dustBands);
+    }
+
+    private Frame frame(int step, Planetesimal tsml, List<Planetesimal> planets, List<DustBand> dustBands) {
+        var nucleus = tsml == null ? null : new Planetesimal(star, tsml.axis(), tsml.eccn(), protoplanetMass, false);
+        return new Frame(step, nucleus, tsml, List.copyOf(planets), List.copyOf(dustBands));
+    }
+
+    /**
+     * Applies the next step's deltas to {@code planets} and {@code dustBands}, returning the nucleus as accreted.
+     */
+    private Planetesimal readStep(ByteBuffer in, List<Planetesimal> planets, List<DustBand> dustBands) {
+        var axis = in.getDouble();
+        var eccn = in.getDouble();
+        var mass = in.getDouble();
+        var gasGiant = (in.get() & GAS_GIANT) != 0;
+        var tsml = new Planetesimal(star, axis, eccn, mass, gasGiant);
+
+        var p = Delta.read(in);
+        var inserted = new ArrayList<Planetesimal>(p.inserted());
+        for (var i = 0; i < p.inserted(); i++) {
+            var flags = in.get();
+            inserted.add((flags & SAME_AS_TSML) != 0
+                    ? tsml
+                    : new Planetesimal(star, in.getDouble(), in.getDouble(), in.getDouble(), (flags & GAS_GIANT) != 0));
+        }
+        p.apply(planets, inserted);
+
+        var b = Delta.read(in);
+        b.apply(dustBands, readBands(in, b.inserted()));
+
+        return tsml;
+    }
+
+    private static List<DustBand> readBands(ByteBuffer in, int count) {
+        var bands = new ArrayList<DustBand>(count);
+        for (var i = 0; i < count; i++) {
+            var inner = in.getDouble();
+            var outer = in.getDouble();
+            var flags = in.get();
+            bands.add(new DustBand(inner, outer, (flags & DUST) != 0, (flags & GAS) != 0));
+        }
+        return bands;
+    }
+}
@@ -2,11 +2,16 @@ package accrete;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Random;
+import java.util.concurrent.Executors;
 
 import static com.googlecode.totallylazy.collections.PersistentSortedSet.constructors.sortedSet;
 import static java.util.Comparator.comparingDouble;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 class AccreteTest {
@@ -24,6 +29,57 @@ class AccreteTest {
         assertPlanetsEquals(expected, actual);
     }
 
+    @Test
+    public void shouldGenerateSpeculativelyAsSequentially() {
+        var gen = new Accrete();
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            for (var seed = 0L; seed < 20; seed++) {
+                var expected = gen.distributePlanets(new Random(seed));
+                var actual = gen.distributePlanets(new Random(seed), executor, 8);
+                assertPlanetsEquals(expected, actual);
+            }
+            assertThrows(IllegalArgumentException.class, () -> gen.distributePlanets(new Random(0), executor, 0));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldStopEarlyWithPartialResult() {
+        var gen = new Accrete();
+        var complete = gen.distributePlanets(new Random(1660075613494L), Cancellation.never(), Long.MAX_VALUE);
+        assertTrue(complete.complete());
+        assertPlanetsEquals(expected(), complete.planets());
+
+        var partial = gen.distributePlanets(new Random(1660075613494L), Cancellation.never(), 10);
+        assertFalse(partial.complete());
+        assertEquals(10, partial.nuclei());
+
+        assertThrows(IllegalArgumentException.class, () -> gen.distributePlanets(new Random(1660075613494L), Cancellation.never(), -1));
+
+        var cancelled = gen.distributePlanets(new Random(1660075613494L), () -> true, Long.MAX_VALUE);
+        assertFalse(cancelled.complete());
+        assertTrue(cancelled.planets().isEmpty());
+    }
+
+    @Test
+    public void shouldGenerateColumnarSystem() {
+        var gen = new Accrete();
+        var system = gen.distributeSystem(new Random(1660075613494L));
+        assertPlanetsEquals(gen.distributePlanets(new Random(1660075613494L)), system);
+
+        var view = system.view(2, 7);
+        var buffer = ByteBuffer.allocate(view.bytes());
+        view.writeTo(buffer);
+        assertPlanetsEquals(view, PlanetarySystem.readFrom(system.star(), buffer.flip()));
+    }
+
+    private static Iterable<Planetesimal> expected() {
+        var star = new Star(1.0, 1.0);
+        return sortedSet(comparingDouble(Planetesimal::axis), new Planetesimal(star, 0.4178567041419378, 0.23408332543327948, 2.167348292635512E-7, false), new Planetesimal(star, 0.6350509393941814, 0.1885303572412591, 3.293532824112172E-7, false), new Planetesimal(star, 0.8673035920013914, 0.13998847849128285, 4.5118455137081636E-6, false), new Planetesimal(star, 1.8176450702804516, 0.047285701897312626, 1.7700577489631473E-5, true), new Planetesimal(star, 3.7126415075316253, 0.023656279732320096, 3.793535256484035E-4, true), new Planetesimal(star, 8.125507250822741, 0.021658400938846523, 4.3191013213353304E-4, true), new Planetesimal(star, 18.091816336108582, 0.021010306994702587, 4.3781415778087645E-5, true), new Planetesimal(star, 38.437067887219754, 0.17393247153991004, 2.6539942281379695E-6, true), new Planetesimal(star, 48.4055131867508, 0.1276334274500348, 6.459424409599317E-8, false));
+    }
+
     private void assertPlanetsEquals(Iterable<Planetesimal> expected, Iterable<Planetesimal> actual) {
         var es = expected.iterator();
         var as = actual.iterator();
@@ -0,0 +1,41 @@
+package accrete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static accrete.DoleParams.EXP_MIN;
+import static accrete.DoleParams.FastExp;
+import static java.lang.Math.abs;
+import static java.lang.Math.exp;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoleParamsTest {
+    @Test
+    public void shouldApproximateExpOverTheTable() {
+        var random = new Random(1660075613494L);
+        for (var i = 0; i < 100_000; i++) {
+            var x = i % 2 == 0 ? EXP_MIN * random.nextDouble() : EXP_MIN - EXP_MIN * (i / 2) / 49_999.0;
+            var error = abs(FastExp(x) - exp(x)) / exp(x);
+            assertTrue(error <= 3e-9, "FastExp(%s) is off by %s".formatted(x, error));
+        }
+    }
+
+    @Test
+    public void shouldBeExactAtTheEndsOfTheTable() {
+        assertEquals(1.0, FastExp(0.0), 0.0);
+        assertEquals(1.0, FastExp(-0.0), 0.0);
+        assertEquals(exp(EXP_MIN), FastExp(EXP_MIN), 0.0);
+        assertEquals(exp(-1.0), FastExp(-1.0), 0.0);
+    }
+
+    @Test
+    public void shouldFallBackToExpOutsideTheTable() {
+        for (var x : new double[]{Math.nextUp(0.0), 0.5, 10.0, Math.nextDown(EXP_MIN), -100.0, -1000.0,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertEquals(exp(x), FastExp(x), 0.0);
+        }
+        assertTrue(Double.isNaN(FastExp(Double.NaN)));
+    }
+}
@@ -0,0 +1,55 @@
+package accrete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static accrete.Planetesimal.randomPlanetesimal;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplingTest {
+    private final Star star = new Accrete().star();
+
+    @Test
+    public void shouldGenerateAsBeforeWithRandomSampling() {
+        var actual = new ArrayList<Planetesimal>();
+        new Accrete(Sampling.RANDOM).distributePlanets(new Random(1660075613494L)).forEach(actual::add);
+
+        var expected = List.of(new Planetesimal(star, 0.4178567041419378, 0.23408332543327948, 2.167348292635512E-7, false), new Planetesimal(star, 0.6350509393941814, 0.1885303572412591, 3.293532824112172E-7, false), new Planetesimal(star, 0.8673035920013914, 0.13998847849128285, 4.5118455137081636E-6, false), new Planetesimal(star, 1.8176450702804516, 0.047285701897312626, 1.7700577489631473E-5, true), new Planetesimal(star, 3.7126415075316253, 0.023656279732320096, 3.793535256484035E-4, true), new Planetesimal(star, 8.125507250822741, 0.021658400938846523, 4.3191013213353304E-4, true), new Planetesimal(star, 18.091816336108582, 0.021010306994702587, 4.3781415778087645E-5, true), new Planetesimal(star, 38.437067887219754, 0.17393247153991004, 2.6539942281379695E-6, true), new Planetesimal(star, 48.4055131867508, 0.1276334274500348, 6.459424409599317E-8, false));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void shouldDrawTheSameNucleiInRangeForTheSameEnsemble() {
+        var ensemble = new HaltonSampling(new Random(42));
+        var again = new HaltonSampling(new Random(42));
+        for (var index = 0L; index < 64; index++) {
+            var nuclei = take(ensemble.system(index).nuclei(new Random(index), star), HaltonSampling.NUCLEI);
+            assertEquals(nuclei, take(again.system(index).nuclei(new Random(index), star), HaltonSampling.NUCLEI));
+            for (var nucleus : nuclei) {
+                assertTrue(nucleus.axis() >= star.innermostPlanet() && nucleus.axis() < star.outermostPlanet(),
+                        "axis %s out of range".formatted(nucleus.axis()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldDrawLaterNucleiFromTheSystemRandom() {
+        var ensemble = new HaltonSampling(new Random(42));
+        var nuclei = take(ensemble.system(3).nuclei(new Random(1660075613494L), star), HaltonSampling.NUCLEI + 16);
+
+        var random = new Random(1660075613494L);
+        for (var i = HaltonSampling.NUCLEI; i < nuclei.size(); i++) assertEquals(randomPlanetesimal(random, star), nuclei.get(i));
+    }
+
+    private static List<Planetesimal> take(Supplier<Planetesimal> nuclei, int count) {
+        var result = new ArrayList<Planetesimal>(count);
+        for (var i = 0; i < count; i++) result.add(nuclei.get());
+        return result;
+    }
+}
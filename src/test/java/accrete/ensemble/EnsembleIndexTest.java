@@ -0,0 +1,80 @@
+package accrete.ensemble;
+
+import accrete.Accrete;
+import accrete.Planetesimal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static accrete.ensemble.PlanetQuery.planet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnsembleIndexTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldSelectAsScanning() {
+        var gen = new Accrete();
+        var index = new EnsembleIndex();
+        var systems = new ArrayList<List<Planetesimal>>();
+        for (var id = 0; id < 200; id++) {
+            var planets = new ArrayList<Planetesimal>();
+            gen.distributePlanets(new Random(id)).forEach(planets::add);
+            systems.add(planets);
+            index.add(id, planets);
+        }
+
+        var queries = new PlanetQuery[]{
+                planet().axis(0.8, 1.5).massEarth(0.5, 2.0).rocky(),
+                planet().axis(1.0, 10.0).giant(),
+                planet().axis(0.1, 1.0).eccn(0.0, 0.1)
+        };
+        for (var query : queries) {
+            var expected = scan(systems, query);
+            var matches = index.find(query);
+            var certain = (BitSet) matches.certain().clone();
+            certain.andNot(expected);
+            assertTrue(certain.isEmpty(), "certain matches must match");
+            assertEquals(expected, index.select(systems::get, query));
+        }
+
+        var both = scan(systems, queries[0]);
+        both.and(scan(systems, queries[1]));
+        assertEquals(both, index.select(systems::get, queries[0], queries[1]));
+    }
+
+    @Test
+    public void shouldSelectFromStoredEnsemble() throws IOException {
+        var file = directory.resolve("ensemble.bin");
+        EnsembleFile.generate(new Accrete(), 1000, 200, file);
+        var systems = new ArrayList<List<Planetesimal>>();
+        EnsembleFile.systems(file, (seed, planets) -> systems.add(planets));
+
+        var index = EnsembleIndex.read(EnsembleFile.indexFile(file));
+        assertEquals(EnsembleIndex.of(file).find(planet()).certain(), index.find(planet()).certain());
+        var giant = planet().axis(1.0, 10.0).giant();
+        var rocky = planet().axis(0.1, 1.0).eccn(0.0, 0.1);
+        assertEquals(scan(systems, giant), index.select(file, giant));
+        var both = scan(systems, giant);
+        both.and(scan(systems, rocky));
+        assertEquals(both, index.select(file, giant, rocky));
+
+        try (var reader = EnsembleFile.open(file)) {
+            for (var id = 0; id < systems.size(); id += 37) assertEquals(systems.get(id), reader.system(id));
+        }
+    }
+
+    private static BitSet scan(List<List<Planetesimal>> systems, PlanetQuery query) {
+        var result = new BitSet();
+        for (var id = 0; id < systems.size(); id++) if (query.matchesAny(systems.get(id))) result.set(id);
+        return result;
+    }
+}
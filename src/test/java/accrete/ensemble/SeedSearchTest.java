@@ -0,0 +1,40 @@
+package accrete.ensemble;
+
+import accrete.Accrete;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import static accrete.ensemble.PlanetQuery.planet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeedSearchTest {
+    @Test
+    public void shouldFindTheSeedsOfAFullScan() {
+        var gen = new Accrete();
+        var query = planet().axis(0.8, 1.5).massEarth(0.5, 2.0).rocky();
+        var predicate = SystemPredicate.count(query, 1, Integer.MAX_VALUE);
+
+        var expected = new ArrayList<Long>();
+        for (var seed = 0L; seed < 200; seed++) if (predicate.matches(gen.distributePlanets(new Random(seed)))) expected.add(seed);
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var result = new SeedSearch(gen, predicate).find(0, 200, Integer.MAX_VALUE, executor);
+            assertEquals(expected, result.seeds());
+            assertEquals(200L, result.searched());
+            assertEquals(0L, result.abandoned());
+            assertEquals(expected.subList(0, 5), new SeedSearch(gen, predicate).find(0, 200, 5, executor).seeds());
+
+            var approximate = new SeedSearch(gen, SystemPredicate.approximateCount(query, 1, Integer.MAX_VALUE, 2.0))
+                    .find(0, 200, Integer.MAX_VALUE, executor);
+            assertTrue(expected.containsAll(approximate.seeds()), "approximate matches must match");
+            assertTrue(approximate.abandoned() > 0, "approximate search abandons runs");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package accrete.ensemble;
+
+import accrete.Accrete;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedEnsembleTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldMergeShardsAsOneRun() throws IOException {
+        var whole = directory.resolve("whole.bin");
+        var expected = EnsembleFile.generate(new Accrete(), 100, 30, whole);
+
+        for (var i = 0; i < 3; i++) ShardedEnsemble.shard(i, 3, 100, 30, directory);
+        var actual = ShardedEnsemble.merge(3, directory);
+
+        var merged = directory.resolve("ensemble.bin");
+        assertArrayEquals(Files.readAllBytes(whole), Files.readAllBytes(merged));
+        assertArrayEquals(Files.readAllBytes(EnsembleFile.indexFile(whole)), Files.readAllBytes(EnsembleFile.indexFile(merged)));
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.totalMass(), actual.totalMass());
+        assertEquals(expected.toString(), EnsembleFile.statistics(whole).toString());
+        assertThrows(IllegalArgumentException.class, () -> EnsembleFile.merge(List.of(), directory.resolve("none.bin")));
+    }
+
+    @Test
+    public void shouldRunShardsInSeparateJvms() throws IOException, InterruptedException {
+        var whole = directory.resolve("whole.bin");
+        var expected = EnsembleFile.generate(new Accrete(), 100, 30, whole);
+
+        var shards = directory.resolve("shards");
+        var actual = ShardedEnsemble.run(100, 30, 3, shards);
+
+        assertArrayEquals(Files.readAllBytes(whole), Files.readAllBytes(shards.resolve("ensemble.bin")));
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void shouldCloseIncompleteFile() throws IOException {
+        var file = directory.resolve("incomplete.bin");
+        var ensemble = new EnsembleFile(file, new EnsembleFile.Header(new Accrete().star(), 0, 2));
+        assertThrows(IllegalStateException.class, ensemble::close);
+    }
+}
@@ -0,0 +1,65 @@
+package accrete.gallery;
+
+import accrete.Accrete;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import static java.awt.Color.white;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccreteGalleryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldWritePagesHeadless() throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            new AccreteGallery(121, 41, 2, 1).write(directory, 5, 3, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        var first = ImageIO.read(directory.resolve("gallery-5.png").toFile());
+        assertEquals(242, first.getWidth());
+        assertEquals(41, first.getHeight());
+        assertNotEquals(white.getRGB(), first.getRGB(0, 0));
+
+        var last = ImageIO.read(directory.resolve("gallery-7.png").toFile());
+        assertNotEquals(white.getRGB(), last.getRGB(0, 0));
+        assertEquals(white.getRGB(), last.getRGB(121, 0));
+    }
+
+    @Test
+    public void shouldDrawPlanetsAndSeedOverTheGrid() {
+        System.setProperty("java.awt.headless", "true");
+        var gallery = new AccreteGallery(361, 121, 1, 1);
+        var bare = gallery.renderTile(5, List.of());
+        var tile = gallery.renderTile(5, new Accrete().distributePlanets(new Random(5)));
+
+        assertTrue(darkened(bare, tile, 0, 0, 361, 121) > 0, "planets must be drawn");
+        assertTrue(darkened(bare, gallery.renderTile(6, List.of()), 1, 1, 60, 20) > 0, "seed must be drawn");
+    }
+
+    /**
+     * The pixels white in {@code from} but not in {@code to}.
+     */
+    private static int darkened(BufferedImage from, BufferedImage to, int x0, int y0, int x1, int y1) {
+        var count = 0;
+        for (var x = x0; x < x1; x++) {
+            for (var y = y0; y < y1; y++) if (from.getRGB(x, y) == white.getRGB() && to.getRGB(x, y) != white.getRGB()) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,55 @@
+package accrete.trace;
+
+import accrete.Accrete;
+import accrete.AccretionListener;
+import accrete.Cancellation;
+import accrete.DustBand;
+import accrete.Planetesimal;
+import accrete.Star;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.collections.PersistentCollection;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TraceReplayerTest {
+    @Test
+    public void shouldReplayEveryStep() throws IOException {
+        var planets = new ArrayList<List<Planetesimal>>();
+        var dustBands = new ArrayList<List<DustBand>>();
+        var bytes = new ByteArrayOutputStream();
+        try (var recorder = new TraceRecorder(bytes)) {
+            new Accrete().distributePlanets(new Random(1660075613494L), new AccretionListener() {
+                @Override
+                public void started(Star star, Sequence<DustBand> bands) {
+                    recorder.started(star, bands);
+                    planets.add(List.of());
+                    dustBands.add(bands.toList());
+                }
+
+                @Override
+                public void accreted(Planetesimal nucleus, Planetesimal tsml, PersistentCollection<Planetesimal> ps, Sequence<DustBand> bands) {
+                    recorder.accreted(nucleus, tsml, ps, bands);
+                    var list = new ArrayList<Planetesimal>();
+                    ps.forEach(list::add);
+                    planets.add(list);
+                    dustBands.add(bands.toList());
+                }
+            }, Cancellation.never(), Long.MAX_VALUE);
+        }
+
+        var replayer = new TraceReplayer(bytes.toByteArray());
+        assertEquals(planets.size() - 1, replayer.steps());
+        for (var step = replayer.steps(); step >= 0; step--) {
+            var frame = replayer.frame(step);
+            assertEquals(planets.get(step), frame.planets(), "planets at step " + step);
+            assertEquals(dustBands.get(step), frame.dustBands(), "dust bands at step " + step);
+        }
+    }
+}